@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Measures lead import throughput: generates a fixed CSV (the same rows every time, 1 in 100
+# rejected for a bad email), uploads it to POST /api/v1/leads/import against a running backend
+# and polls the job until it finishes, once per run. Prints per run the rows imported and
+# rejected, the job's own rows/s (parse + insert, from the job status) and the wall-clock rows/s
+# including the upload. Arguments after -- go to psql; when given, the imported rows are deleted
+# after each run so every run starts from the same table, e.g.
+#   BENCH_USER=nurye BENCH_PASSWORD=... scripts/bench/import-bench.sh 100000 3 -- -h localhost -U realestate -d realestate_db
+# The first run includes JIT warm-up. The CSV and the job responses are kept in target/bench/.
+set -euo pipefail
+
+here="$(cd "$(dirname "$0")" && pwd)"
+out="$here/../../target/bench"
+mkdir -p "$out"
+
+rows="${1:-100000}"
+runs="${2:-3}"
+shift $(( $# < 2 ? $# : 2 ))
+[ "${1:-}" = "--" ] && shift
+base="${BENCH_BASE:-http://localhost:8080}"
+user="${BENCH_USER:?set BENCH_USER}"
+password="${BENCH_PASSWORD:?set BENCH_PASSWORD}"
+domain="import-bench.example"
+csv="$out/import-$rows.csv"
+
+# Deterministic rows, so runs and machines compare like for like
+if [ ! -f "$csv" ]; then
+  awk -v n="$rows" -v d="$domain" 'BEGIN {
+    split("NEW CONTACTED QUALIFIED OPPORTUNITY", status, " ")
+    split("WEBSITE REFERRAL WALK_IN PHONE", source, " ")
+    print "firstName,lastName,email,phone,source,status"
+    for (i = 1; i <= n; i++) {
+      email = (i % 100 == 0) ? "not-an-email-" i : "lead" i "@" d
+      printf "First%d,Last%d,%s,(555) %03d-%04d,%s,%s\n", i, i % 997, email, i % 1000, i % 10000, source[i % 4 + 1], status[i % 4 + 1]
+    }
+  }' > "$csv"
+fi
+
+token="$(curl -s -X POST "$base/api/v1/auth/login" -H 'Content-Type: application/json' \
+  -d "{\"username\":\"$user\",\"password\":\"$password\"}" | sed 's/.*"accessToken":"\([^"]*\)".*/\1/')"
+
+field() { python3 -c "import json,sys; print(json.load(sys.stdin)[\"$1\"])"; }
+
+printf "%-4s %10s %10s %12s %12s %8s\n" run imported rejected "job rows/s" "wall rows/s" status
+for run in $(seq 1 "$runs"); do
+  started="$(date +%s.%N)"
+  job="$(curl -s -H "Authorization: Bearer $token" -F "file=@$csv;type=text/csv" "$base/api/v1/leads/import" | field jobId)"
+  while :; do
+    curl -s -H "Authorization: Bearer $token" "$base/api/v1/leads/import/$job" > "$out/import-job-$run.json"
+    status="$(field status < "$out/import-job-$run.json")"
+    [ "$status" = COMPLETED ] || [ "$status" = FAILED ] && break
+    sleep 0.2
+  done
+  finished="$(date +%s.%N)"
+
+  python3 - "$out/import-job-$run.json" "$run" "$started" "$finished" <<'EOF'
+import json, sys
+job = json.load(open(sys.argv[1]))
+wall = float(sys.argv[4]) - float(sys.argv[3])
+print("%-4s %10d %10d %12d %12d %8s" % (sys.argv[2], job["rowsImported"], job["rowsRejected"],
+      job["rowsPerSecond"], job["rowsImported"] / wall, job["status"]))
+if job.get("error"):
+    print("     " + job["error"])
+EOF
+
+  if [ $# -gt 0 ]; then
+    psql "$@" -X -q -c "DELETE FROM leads WHERE email LIKE '%@$domain'" > /dev/null
+  fi
+done
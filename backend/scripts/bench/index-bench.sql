@@ -0,0 +1,76 @@
+-- Plans and timings for the queries behind the repository finders that V7 indexes.
+--
+--   psql -d realestate_db -f index-bench.sql                        -- with the indexes
+--   psql -d realestate_db -v without_indexes=1 -f index-bench.sql   -- as before V7
+--
+-- The "before" run drops the V7 indexes inside a transaction and rolls it back at the end, so
+-- it leaves the schema untouched (it does hold locks on the tables while it runs: use a dev
+-- copy, not production). Every query runs once to warm the cache before it is explained.
+-- run-index-bench.sh runs both and prints a side-by-side summary.
+
+\set ON_ERROR_STOP on
+\pset pager off
+\if :{?without_indexes}
+\else
+  \set without_indexes 0
+\endif
+
+-- Sample keys: the most referenced parent of each kind, and an owner nothing references (the
+-- FK check on delete then has to prove absence)
+SELECT (SELECT site_id FROM buildings GROUP BY site_id ORDER BY count(*) DESC LIMIT 1) AS site_id,
+       (SELECT building_id FROM building_units GROUP BY building_id ORDER BY count(*) DESC LIMIT 1) AS building_id,
+       (SELECT id FROM owners o WHERE NOT EXISTS (SELECT 1 FROM building_units u WHERE u.owner_id = o.id) LIMIT 1) AS owner_id,
+       (SELECT assigned_to FROM leads WHERE assigned_to IS NOT NULL LIMIT 1) AS agent_id,
+       (SELECT user_id FROM commission_records WHERE user_id IS NOT NULL LIMIT 1) AS commission_user_id,
+       (SELECT email FROM users WHERE email IS NOT NULL ORDER BY id DESC LIMIT 1) AS user_email
+\gset
+
+BEGIN;
+
+\if :without_indexes
+DROP INDEX IF EXISTS idx_buildings_site_id;
+DROP INDEX IF EXISTS idx_building_units_building_id;
+DROP INDEX IF EXISTS idx_building_units_owner_id;
+DROP INDEX IF EXISTS idx_building_units_status;
+DROP INDEX IF EXISTS idx_building_units_type;
+DROP INDEX IF EXISTS idx_leads_assigned_to;
+DROP INDEX IF EXISTS idx_users_email;
+\endif
+
+\echo '### BuildingRepository.findBySite'
+SELECT * FROM buildings WHERE site_id = :'site_id' \g /dev/null
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM buildings WHERE site_id = :'site_id';
+
+\echo '### BuildingUnitRepository.findByBuilding'
+SELECT * FROM building_units WHERE building_id = :'building_id' \g /dev/null
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM building_units WHERE building_id = :'building_id';
+
+\echo '### BuildingUnitRepository.findByStatus'
+SELECT * FROM building_units WHERE status = 'AVAILABLE' \g /dev/null
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM building_units WHERE status = 'AVAILABLE';
+
+\echo '### BuildingUnitRepository.findByType'
+SELECT * FROM building_units WHERE type = 'OFFICE' \g /dev/null
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM building_units WHERE type = 'OFFICE';
+
+\echo '### OwnerRepository.deleteById (FK reference check)'
+SELECT 1 FROM building_units WHERE owner_id = :'owner_id' LIMIT 1 \g /dev/null
+EXPLAIN (ANALYZE, BUFFERS) SELECT 1 FROM building_units WHERE owner_id = :'owner_id' LIMIT 1;
+
+\echo '### LeadRepository.reassignFromUser'
+SELECT id FROM leads WHERE assigned_to = :'agent_id' AND status NOT IN ('CLOSED_WON', 'CLOSED_LOST') \g /dev/null
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM leads WHERE assigned_to = :'agent_id' AND status NOT IN ('CLOSED_WON', 'CLOSED_LOST');
+
+\echo '### CommissionRecordRepository.findByUserIdAndIssuedAt... (V5 index, unchanged)'
+SELECT * FROM commission_records WHERE user_id = :'commission_user_id'
+  AND issued_at >= date_trunc('month', now()) ORDER BY issued_at \g /dev/null
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM commission_records WHERE user_id = :'commission_user_id'
+  AND issued_at >= date_trunc('month', now()) ORDER BY issued_at;
+
+\echo '### UserRepository.findByEmail'
+SELECT * FROM users WHERE email = :'user_email' \g /dev/null
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM users WHERE email = :'user_email';
+
+ROLLBACK;
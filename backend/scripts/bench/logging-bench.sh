@@ -0,0 +1,86 @@
+#!/usr/bin/env bash
+# Measures what logging costs per request: starts the packaged jar once with the default
+# profile (DEBUG, show-sql, console) and once with the prod profile (async JSON, sampling),
+# sends the same requests to GET /api/v1/properties/units/{id} and prints, per profile, the
+# server-side mean latency (from the http.server.requests meter), process CPU per request and
+# log bytes per request. Needs a built jar (mvn -DskipTests package) and the usual database.
+#   BENCH_USER=nurye BENCH_PASSWORD=... scripts/bench/logging-bench.sh [requests]
+# Application output is kept in target/bench/logging-<profile>.log.
+set -euo pipefail
+
+here="$(cd "$(dirname "$0")" && pwd)"
+jar="$(ls "$here"/../../target/backend-*.jar | head -1)"
+out="$here/../../target/bench"
+mkdir -p "$out"
+
+requests="${1:-2000}"
+warmup=500
+port="${BENCH_PORT:-18080}"
+management_port="${BENCH_MANAGEMENT_PORT:-18081}"
+base="http://localhost:$port"
+management="http://localhost:$management_port"
+user="${BENCH_USER:?set BENCH_USER}"
+password="${BENCH_PASSWORD:?set BENCH_PASSWORD}"
+uri="/api/v1/properties/units/%7Bid%7D"
+ticks="$(getconf CLK_TCK)"
+
+# utime + stime of a process, in clock ticks
+cpu_ticks() { awk '{ print $14 + $15 }' "/proc/$1/stat"; }
+
+# COUNT and TOTAL_TIME of the http.server.requests meter for $uri
+server_time() {
+  curl -s -H "Authorization: Bearer $token" \
+    "$management/actuator/metrics/http.server.requests?tag=uri:$uri" |
+    python3 -c 'import json,sys; m={x["statistic"]: x["value"] for x in json.load(sys.stdin)["measurements"]}; print(m["COUNT"], m["TOTAL_TIME"])'
+}
+
+# n keep-alive GETs from a single curl process
+hit() {
+  local cfg="$out/logging-urls.cfg"
+  : > "$cfg"
+  for _ in $(seq 1 "$1"); do
+    printf 'url = "%s/api/v1/properties/units/%s"\noutput = /dev/null\n' "$base" "$unit" >> "$cfg"
+  done
+  curl -s -H "Authorization: Bearer $token" -K "$cfg"
+}
+
+run() {
+  local profile="$1" log="$out/logging-$1.log"
+  java -jar "$jar" --server.port="$port" --management.server.port="$management_port" --spring.profiles.active="$profile" > "$log" 2>&1 &
+  local pid=$!
+  for _ in $(seq 1 90); do
+    curl -s -o /dev/null "$management/actuator/health" && break
+    sleep 1
+  done
+
+  token="$(curl -s -X POST "$base/api/v1/auth/login" -H 'Content-Type: application/json' \
+    -d "{\"username\":\"$user\",\"password\":\"$password\"}" | sed 's/.*"accessToken":"\([^"]*\)".*/\1/')"
+  unit="$(curl -s -H "Authorization: Bearer $token" "$base/api/v1/properties/units/search?limit=1" |
+    sed 's/^\[{"id":"\([^"]*\)".*/\1/')"
+
+  hit "$warmup"
+  sleep 1
+  read -r count0 total0 < <(server_time)
+  local cpu0 bytes0
+  cpu0="$(cpu_ticks "$pid")"
+  bytes0="$(stat -c %s "$log")"
+
+  hit "$requests"
+  sleep 1
+
+  read -r count1 total1 < <(server_time)
+  local cpu1 bytes1
+  cpu1="$(cpu_ticks "$pid")"
+  bytes1="$(stat -c %s "$log")"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+
+  awk -v p="$profile" -v n="$requests" -v c0="$count0" -v c1="$count1" -v t0="$total0" -v t1="$total1" \
+      -v cpu="$((cpu1 - cpu0))" -v hz="$ticks" -v bytes="$((bytes1 - bytes0))" \
+    'BEGIN { c = c1 - c0; printf "%-8s %8d %14.3f %14.3f %14.0f\n", p, c, (t1 - t0) * 1000 / c, cpu * 1000 / hz / n, bytes / n }'
+}
+
+printf "%-8s %8s %14s %14s %14s\n" profile requests "server ms/req" "cpu ms/req" "log B/req"
+run default
+run prod
@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Runs index-bench.sql without and with the V7 indexes and prints, per repository method, the
+# top plan node and execution time of each run. Extra arguments are passed to psql, e.g.
+#   scripts/bench/run-index-bench.sh -h localhost -U realestate -d realestate_db
+# Full plans are kept in target/bench/.
+set -euo pipefail
+
+here="$(cd "$(dirname "$0")" && pwd)"
+out="$here/../../target/bench"
+mkdir -p "$out"
+
+psql "$@" -X -q -v without_indexes=1 -f "$here/index-bench.sql" > "$out/index-before.txt"
+psql "$@" -X -q -f "$here/index-bench.sql" > "$out/index-after.txt"
+
+# "### name" headers, first plan line (the scan) and "Execution Time" per query
+summarise() {
+  awk '
+    /^### /             { name = substr($0, 5); scan = ""; next }
+    /Scan|Seq|Index/ && scan == "" { s = $0; sub(/^[ ->]*/, "", s); sub(/  \(cost.*/, "", s); scan = s }
+    /Execution Time/    { printf "%s\t%s\t%s\n", name, scan, $3 }
+  ' "$1"
+}
+
+paste <(summarise "$out/index-before.txt") <(summarise "$out/index-after.txt" | cut -f2,3) |
+  awk -F'\t' 'BEGIN { printf "%-62s %10s %10s\n  %s\n", "query", "before ms", "after ms", "before plan -> after plan" }
+              { printf "%-62s %10s %10s\n  %s -> %s\n", $1, $3, $5, $2, $4 }'
@@ -0,0 +1,59 @@
+-- Inserts the same number of rows into two identical tables keyed by random v4 and by
+-- time-ordered v7 UUIDs, and reports insert time, WAL written and primary-key index size.
+--
+--   psql -d realestate_db -f uuid-insert-bench.sql                  -- 1,000,000 rows
+--   psql -d realestate_db -v rows=5000000 -f uuid-insert-bench.sql
+--
+-- Keys are generated up front (not timed) in creation order, as the application would assign
+-- them, so the comparison is about where each key lands in the B-tree rather than generation
+-- cost. The differences grow once the v4 index no longer fits in shared_buffers. Needs
+-- uuid_generate_v7() from V8; the bench tables are dropped at the end.
+
+\set ON_ERROR_STOP on
+\pset pager off
+\if :{?rows}
+\else
+  \set rows 1000000
+\endif
+
+DROP TABLE IF EXISTS uuid_bench_keys, uuid_bench_v4, uuid_bench_v7, uuid_bench_results;
+
+CREATE UNLOGGED TABLE uuid_bench_keys AS
+SELECT g AS seq, gen_random_uuid() AS v4, uuid_generate_v7() AS v7
+FROM generate_series(1, :rows) g;
+
+-- Roughly the width of a leads row
+CREATE TABLE uuid_bench_v4 (id uuid PRIMARY KEY, payload text, created_at timestamptz DEFAULT now());
+CREATE TABLE uuid_bench_v7 (id uuid PRIMARY KEY, payload text, created_at timestamptz DEFAULT now());
+CREATE TEMP TABLE uuid_bench_results (keys text, insert_ms numeric, wal_bytes numeric, pkey_bytes bigint, heap_bytes bigint);
+CHECKPOINT;
+
+DO $$
+DECLARE
+  k text;
+  t0 timestamptz;
+  lsn0 pg_lsn;
+BEGIN
+  FOREACH k IN ARRAY ARRAY['v4', 'v7'] LOOP
+    lsn0 := pg_current_wal_insert_lsn();
+    t0 := clock_timestamp();
+    EXECUTE format('INSERT INTO uuid_bench_%s (id, payload) SELECT %s, md5(seq::text) || md5(%s::text) FROM uuid_bench_keys ORDER BY seq', k, k, k);
+    INSERT INTO uuid_bench_results VALUES (k,
+        extract(epoch FROM clock_timestamp() - t0) * 1000,
+        pg_wal_lsn_diff(pg_current_wal_insert_lsn(), lsn0),
+        pg_relation_size(format('uuid_bench_%s_pkey', k)),
+        pg_relation_size(format('uuid_bench_%s', k)));
+  END LOOP;
+END
+$$;
+
+SELECT keys,
+       round(insert_ms) AS insert_ms,
+       round(:rows / (insert_ms / 1000)) AS rows_per_s,
+       pg_size_pretty(wal_bytes) AS wal,
+       pg_size_pretty(pkey_bytes) AS pkey_size,
+       round(pkey_bytes::numeric / :rows, 1) AS pkey_bytes_per_row,
+       pg_size_pretty(heap_bytes) AS heap_size
+FROM uuid_bench_results ORDER BY keys;
+
+DROP TABLE uuid_bench_keys, uuid_bench_v4, uuid_bench_v7;
@@ -0,0 +1,88 @@
+package com.realestatecrm.bench;
+
+import com.realestatecrm.entity.Building;
+import com.realestatecrm.entity.BuildingUnit;
+import com.realestatecrm.entity.Owner;
+import com.realestatecrm.entity.Site;
+import com.realestatecrm.entity.User;
+import com.realestatecrm.entity.UuidV7Generator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached entities shaped like real rows, for benchmarks that must not touch the database.
+ * Ids are set reflectively because the JPA entities only expose them through the generator.
+ */
+final class BenchData {
+
+    private BenchData() {}
+
+    static Site site() {
+        Site site = new Site("Bole Heights", "Africa Avenue 12", "Addis Ababa", "Ethiopia");
+        ReflectionTestUtils.setField(site, "id", UuidV7Generator.generate());
+        site.setState("Addis Ababa");
+        site.setPostalCode("1000");
+        site.setParkingAvailable(true);
+        site.setDescription("Mixed-use development with underground parking");
+        return site;
+    }
+
+    static Building building(Site site) {
+        Building building = new Building("Tower A", 18, 24500.0, site);
+        ReflectionTestUtils.setField(building, "id", UuidV7Generator.generate());
+        site.getBuildings().add(building);
+        return building;
+    }
+
+    static Owner owner() {
+        Owner owner = new Owner();
+        owner.setId(UuidV7Generator.generate());
+        owner.setName("Abebe Properties PLC");
+        owner.setContactPerson("Abebe Kebede");
+        owner.setEmail("abebe@example.com");
+        owner.setPhone("+251911000000");
+        owner.setAddress("Kazanchis, Addis Ababa");
+        owner.setTaxNumber("0012345678");
+        return owner;
+    }
+
+    static BuildingUnit unit(Building building, Owner owner, int i) {
+        BuildingUnit.UnitType[] types = BuildingUnit.UnitType.values();
+        BuildingUnit.Status[] statuses = BuildingUnit.Status.values();
+        BuildingUnit unit = new BuildingUnit("A-" + (100 + i), types[i % types.length], 1 + i % 18,
+                60.0 + i % 140, 2_500_000.0 + 1_000.0 * i, building);
+        ReflectionTestUtils.setField(unit, "id", UuidV7Generator.generate());
+        unit.setStatus(statuses[i % statuses.length]);
+        unit.setParkingSlots(i % 3);
+        if (i % 2 == 0) unit.setOwner(owner);
+        return unit;
+    }
+
+    static List<BuildingUnit> units(int count) {
+        Building building = building(site());
+        Owner owner = owner();
+        List<BuildingUnit> units = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            units.add(unit(building, owner, i));
+        }
+        building.setBuildingUnits(units);
+        return units;
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(UuidV7Generator.generate());
+        user.setUsername("nurye");
+        user.setEmail("nurye@example.com");
+        user.setPasswordHash("$2a$10$abcdefghijklmnopqrstuuVb0v8tV7e9TnWl5yVZyQmhhVG9ZkM8W");
+        user.setFirstName("Nurye");
+        user.setLastName("Nigus");
+        user.setRole(User.Role.SALES);
+        user.setCompensationType(User.CompensationType.SALARY_PLUS_COMMISSION);
+        user.setBaseSalary(new BigDecimal("25000.00"));
+        return user;
+    }
+}
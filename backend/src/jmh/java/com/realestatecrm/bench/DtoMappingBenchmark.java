@@ -0,0 +1,68 @@
+package com.realestatecrm.bench;
+
+import com.realestatecrm.dto.PropertyDtos;
+import com.realestatecrm.dto.UserDto;
+import com.realestatecrm.entity.Building;
+import com.realestatecrm.entity.BuildingUnit;
+import com.realestatecrm.entity.Owner;
+import com.realestatecrm.entity.Site;
+import com.realestatecrm.entity.User;
+import com.realestatecrm.mapper.UserMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping done for every row a controller returns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private Site site;
+    private Building building;
+    private BuildingUnit unit;
+    private Owner owner;
+    private User user;
+    private UserMapper userMapper;
+
+    @Setup
+    public void setUp() {
+        site = BenchData.site();
+        building = BenchData.building(site);
+        owner = BenchData.owner();
+        unit = BenchData.unit(building, owner, 0);
+        building.getBuildingUnits().add(unit);
+        user = BenchData.user();
+        userMapper = new UserMapper();
+    }
+
+    @Benchmark
+    public PropertyDtos.SiteResponse siteResponse() {
+        return PropertyDtos.SiteResponse.fromEntity(site);
+    }
+
+    @Benchmark
+    public PropertyDtos.BuildingResponse buildingResponse() {
+        return PropertyDtos.BuildingResponse.fromEntity(building);
+    }
+
+    @Benchmark
+    public PropertyDtos.UnitResponse unitResponse() {
+        return PropertyDtos.UnitResponse.fromEntity(unit);
+    }
+
+    @Benchmark
+    public PropertyDtos.OwnerResponse ownerResponse() {
+        return PropertyDtos.OwnerResponse.fromEntity(owner);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.toDto(user);
+    }
+}
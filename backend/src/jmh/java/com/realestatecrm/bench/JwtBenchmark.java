@@ -0,0 +1,43 @@
+package com.realestatecrm.bench;
+
+import com.realestatecrm.config.JwtProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue on login and the checks JwtAuthenticationFilter runs on every authenticated request,
+ * with the secret and lifetime from application.yml.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtProvider jwtProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtProvider = new JwtProvider("MySuperSecretKeyThatIsAtLeast32CharsLong!!", 86_400_000L);
+        token = jwtProvider.generateToken("nurye", "ADMIN");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtProvider.generateToken("nurye", "ADMIN");
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtProvider.validate(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtProvider.extractUsername(token);
+    }
+}
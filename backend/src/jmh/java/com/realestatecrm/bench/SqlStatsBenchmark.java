@@ -0,0 +1,101 @@
+package com.realestatecrm.bench;
+
+import com.realestatecrm.config.SqlStats;
+import com.realestatecrm.config.SqlStatsDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What SqlStatsDataSource adds to each statement: prepare, execute and read a one-row result
+ * through stub JDBC objects, with and without the wrapper, plus SqlStats.record on its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SqlStatsBenchmark {
+
+    private static final String SQL = "select o1_0.id,o1_0.address,o1_0.contact_person,o1_0.created_at,o1_0.email,"
+            + "o1_0.name,o1_0.notes,o1_0.phone,o1_0.tax_number from owners o1_0 where o1_0.id=?";
+
+    private SqlStats stats;
+    private DataSource plain;
+    private DataSource wrapped;
+
+    @Setup
+    public void setUp() {
+        stats = new SqlStats(true, 200, 2000, 100);
+        plain = new StubDataSource();
+        wrapped = new SqlStatsDataSource(plain, stats);
+    }
+
+    @Benchmark
+    public long plainStatement() throws SQLException {
+        return runQuery(plain);
+    }
+
+    @Benchmark
+    public long wrappedStatement() throws SQLException {
+        return runQuery(wrapped);
+    }
+
+    @Benchmark
+    public SqlStats.Entry record() {
+        return stats.record(SQL, 120_000, 1, false);
+    }
+
+    private static long runQuery(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SQL)) {
+            statement.setLong(1, 42L);
+            long rows = 0;
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) rows += rs.getLong(1);
+            }
+            return rows;
+        }
+    }
+
+    // Returns one row per query and no-ops everything else
+    private static class StubDataSource extends AbstractDataSource {
+        private final Connection connection = stub(Connection.class);
+
+        @Override
+        public Connection getConnection() {
+            return connection;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return connection;
+        }
+
+        private static <T> T stub(Class<T> type) {
+            ResultSet[] rs = new ResultSet[1];
+            int[] remaining = new int[1];
+            return type.cast(Proxy.newProxyInstance(SqlStatsBenchmark.class.getClassLoader(), new Class<?>[] {type},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "prepareStatement" -> stub(PreparedStatement.class);
+                        case "executeQuery" -> {
+                            if (rs[0] == null) rs[0] = stub(ResultSet.class);
+                            yield rs[0];
+                        }
+                        case "next" -> remaining[0]++ % 2 == 0;
+                        case "getLong" -> 1L;
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> null;
+                    }));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.realestatecrm.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestatecrm.dto.PropertyDtos;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialisation of UnitResponse lists the size of the unit listing endpoints' pages,
+ * with an ObjectMapper configured the way Spring Boot configures the web one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UnitJsonBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<PropertyDtos.UnitResponse> units;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        units = BenchData.units(size).stream().map(PropertyDtos.UnitResponse::fromEntity).toList();
+    }
+
+    @Benchmark
+    public byte[] serialise() throws Exception {
+        return objectMapper.writeValueAsBytes(units);
+    }
+}
@@ -0,0 +1,19 @@
+package com.realestatecrm.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+public class FlywayConfig {
+
+    // Flyway 9 takes its PostgreSQL migration lock inside a transaction by default. CREATE INDEX
+    // CONCURRENTLY waits for every open transaction to finish, including that one, so migrations
+    // built concurrently (V7) would hang forever; a session-level lock avoids it.
+    @Bean
+    public FlywayConfigurationCustomizer sessionLevelMigrationLock() {
+        return configuration -> configuration.configuration(Map.of("flyway.postgresql.transactional.lock", "false"));
+    }
+}
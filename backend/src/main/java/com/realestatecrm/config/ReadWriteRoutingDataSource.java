@@ -0,0 +1,138 @@
+package com.realestatecrm.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends connections requested inside a read-only transaction to the replica pool and everything
+ * else to the primary. A probe measures how far the replica is behind; while it lags more than
+ * {@code maxLagMs}, isn't streaming from the primary or cannot be reached, read-only work goes to
+ * the primary too. The probe runs on its own thread rather than the shared {@code @Scheduled} one,
+ * so a long scheduled job can't leave reads on a replica that has since fallen behind.
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is picked after the transaction has been marked read-only.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    public enum Target { PRIMARY, REPLICA }
+
+    // Zero when the replica is streaming and has replayed everything it received, otherwise the
+    // age of the last replayed transaction; 0 on a server that is not in recovery (e.g. a local
+    // stand-in). NULL, i.e. unknown, when the WAL receiver is not streaming (receive and replay
+    // positions then agree however far behind the primary it is) or nothing was replayed yet.
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long maxLagMs;
+    private final long lagCheckIntervalMs;
+    private final ScheduledExecutorService lagProbe = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "replica-lag-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean replicaUsable;
+    private volatile boolean checked;
+    private volatile long replicaLagMs = -1;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long maxLagMs, long lagCheckIntervalMs) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMs = maxLagMs;
+        this.lagCheckIntervalMs = lagCheckIntervalMs;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && replicaUsable ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    // A replica that dies between probes costs one connection timeout, then reads move over
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() != Target.REPLICA) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            if (replicaUsable) {
+                replicaUsable = false;
+                logger.warn("Replica unavailable, read-only transactions now go to the primary: {}", e.getMessage());
+            }
+            return primary.getConnection();
+        }
+    }
+
+    /** Checks the lag now, then every {@code lagCheckIntervalMs} until {@link #close}. */
+    public void start() {
+        checkReplicaLag();
+        lagProbe.scheduleWithFixedDelay(this::checkReplicaLag, lagCheckIntervalMs, lagCheckIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        lagProbe.shutdownNow();
+    }
+
+    public void checkReplicaLag() {
+        boolean usable;
+        try (Connection con = replica.getConnection();
+             Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery(LAG_SQL)) {
+            rs.next();
+            long lag = rs.getLong(1);
+            if (rs.wasNull()) {
+                replicaLagMs = -1;
+                usable = false;
+                if (replicaUsable || !checked) {
+                    logger.warn("Replica is not streaming from the primary, its lag is unknown");
+                }
+            } else {
+                replicaLagMs = lag;
+                usable = lag <= maxLagMs;
+            }
+        } catch (Exception e) {
+            replicaLagMs = -1;
+            usable = false;
+            if (replicaUsable || !checked) {
+                logger.warn("Replica lag check failed: {}", e.getMessage());
+            }
+        }
+        checked = true;
+        if (usable != replicaUsable) {
+            logger.info("Read-only transactions now go to the {} (replica lag {} ms, limit {} ms)",
+                    usable ? "replica" : "primary", replicaLagMs, maxLagMs);
+            replicaUsable = usable;
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getReplicaLagMs() {
+        return replicaLagMs;
+    }
+}
@@ -42,6 +42,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/v1/auth/**").permitAll()
                 .requestMatchers("/error").permitAll()
+                .requestMatchers("/actuator/prometheus").permitAll() // management port only, scraped without a user token
+                .requestMatchers("/actuator/sqlstats", "/actuator/sqlstats/**").hasRole("ADMIN") // raw SQL, reset
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -0,0 +1,107 @@
+package com.realestatecrm.config;
+
+/**
+ * Per-request time accumulators behind the Server-Timing header. ServerTimingFilter opens one for
+ * each API request on the request thread; the places that own a phase add to it:
+ * JwtAuthenticationFilter (jwt, user), ServiceMetricsAspect (svc, outermost service call only) and
+ * SqlStats (db, every JDBC statement while jdbc.stats is enabled). ServerTimingBodyAdvice sets the
+ * header just before the body is written, so it cannot include serialisation; ser (from then to
+ * the end of the request) is only in the filter's log line. Phases overlap: db includes statements
+ * run by the user lookup and the services, svc includes its own db time. Work on other threads is
+ * not seen.
+ */
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    final long startNanos = System.nanoTime();
+    long jwtNanos;
+    long userNanos;
+    long serviceNanos;
+    long dbNanos;
+    int dbStatements;
+    long serialiseStartNanos;
+    private final boolean header;
+    private int serviceDepth;
+
+    private ServerTiming(boolean header) {
+        this.header = header;
+    }
+
+    static ServerTiming begin(boolean header) {
+        ServerTiming timing = new ServerTiming(header);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static void addJwt(long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) timing.jwtNanos += nanos;
+    }
+
+    public static void addUserLookup(long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) timing.userNanos += nanos;
+    }
+
+    static void addDb(long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.dbNanos += nanos;
+            timing.dbStatements++;
+        }
+    }
+
+    /** Returns the start time for {@link #exitService}, or 0 inside another service call. */
+    static long enterService() {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null || timing.serviceDepth++ > 0) return 0;
+        return System.nanoTime();
+    }
+
+    static void exitService(long startNanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null) return;
+        timing.serviceDepth--;
+        if (startNanos != 0) timing.serviceNanos += System.nanoTime() - startNanos;
+    }
+
+    /** Starts ser; returns the header value as of now, or null when the header is off. */
+    static String serialisationStarting() {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null) return null;
+        long now = System.nanoTime();
+        if (timing.serialiseStartNanos == 0) timing.serialiseStartNanos = now;
+        return timing.header ? timing.header(now) : null;
+    }
+
+    long serialiseNanos(long now) {
+        return serialiseStartNanos == 0 ? 0 : now - serialiseStartNanos;
+    }
+
+    // Header value as of now
+    String header(long now) {
+        StringBuilder sb = new StringBuilder(160);
+        phase(sb, "jwt", jwtNanos, null);
+        phase(sb, "user", userNanos, null);
+        phase(sb, "svc", serviceNanos, null);
+        phase(sb, "db", dbNanos, dbStatements + (dbStatements == 1 ? " statement" : " statements"));
+        phase(sb, "total", now - startNanos, null);
+        return sb.toString();
+    }
+
+    private static void phase(StringBuilder sb, String name, long nanos, String description) {
+        if (!sb.isEmpty()) sb.append(", ");
+        sb.append(name).append(";dur=").append(ms(nanos));
+        if (description != null) sb.append(";desc=\"").append(description).append('"');
+    }
+
+    // Milliseconds with two decimals, for the header and the log line
+    static double ms(long nanos) {
+        return Math.round(nanos / 1e4) / 100.0;
+    }
+}
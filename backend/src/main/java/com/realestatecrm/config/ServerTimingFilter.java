@@ -0,0 +1,82 @@
+package com.realestatecrm.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Opens the {@link ServerTiming} accumulators for every /api request. Runs ahead of Spring
+ * Security so the JWT check is inside the request. The Server-Timing header (jwt, user, svc, db and
+ * total, in ms) is set by ServerTimingBodyAdvice as the body starts; responses without a body get
+ * it here when the request ends. With {@code server-timing.log}, one log line per request carries
+ * the same numbers plus ser (serialisation and write, which end after the header has gone out) as
+ * fields.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServerTimingFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    static final String HEADER = "Server-Timing";
+
+    private final boolean enabled;
+    private final boolean header;
+    private final boolean logRequests;
+
+    public ServerTimingFilter(@Value("${server-timing.enabled:true}") boolean enabled,
+                              @Value("${server-timing.header:true}") boolean header,
+                              @Value("${server-timing.log:false}") boolean logRequests) {
+        this.enabled = enabled;
+        this.header = header;
+        this.logRequests = logRequests;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.begin(header);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ServerTiming.end();
+            long now = System.nanoTime();
+            if (header && !response.isCommitted() && !response.containsHeader(HEADER)) {
+                response.setHeader(HEADER, timing.header(now));
+            }
+            if (logRequests) log(request, response, timing, now);
+        }
+    }
+
+    private static void log(HttpServletRequest request, HttpServletResponse response, ServerTiming timing, long now) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        log.info("Server timing {} {} {} {} {} {} {} {} {} {}",
+                kv("method", request.getMethod()),
+                kv("uri", pattern != null ? pattern : request.getRequestURI()),
+                kv("status", response.getStatus()),
+                kv("total_ms", ServerTiming.ms(now - timing.startNanos)),
+                kv("jwt_ms", ServerTiming.ms(timing.jwtNanos)),
+                kv("user_ms", ServerTiming.ms(timing.userNanos)),
+                kv("svc_ms", ServerTiming.ms(timing.serviceNanos)),
+                kv("db_ms", ServerTiming.ms(timing.dbNanos)),
+                kv("db_statements", timing.dbStatements),
+                kv("ser_ms", ServerTiming.ms(timing.serialiseNanos(now))));
+    }
+}
@@ -0,0 +1,60 @@
+package com.realestatecrm.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the services as {@code service.calls} (tags service, method,
+ * exception) and counts failures as {@code service.errors}; that includes the JdbcTemplate-based
+ * ones and their scheduled and event-listener entry points. Repository calls are timed by Spring
+ * Boot itself as {@code spring.data.repository.invocations}. Calls a service makes to its own
+ * methods do not go through the proxy and are not timed separately, so jobs a service runs on its
+ * own executor (lead imports, property deletes) record their own timers. The outermost call on a
+ * request thread also counts towards the svc phase of the Server-Timing header.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.realestatecrm.service.PropertyService.*(..))" +
+            " || execution(public * com.realestatecrm.service.LeadService.*(..))" +
+            " || execution(public * com.realestatecrm.service.UserService.*(..))" +
+            " || execution(public * com.realestatecrm.service.AuthService.*(..))" +
+            " || execution(public * com.realestatecrm.service.UnitSearchService.*(..))" +
+            " || execution(public * com.realestatecrm.service.LeadImportService.*(..))" +
+            " || execution(public * com.realestatecrm.service.LeadArchiveService.*(..))" +
+            " || execution(public * com.realestatecrm.service.PropertyDeleteService.*(..))" +
+            " || execution(public * com.realestatecrm.service.ChangeFeedService.*(..))" +
+            " || execution(public * com.realestatecrm.service.PayrollService.*(..))" +
+            " || execution(public * com.realestatecrm.service.CommissionService.*(..))" +
+            " || execution(public * com.realestatecrm.service.CommissionLedgerService.*(..))" +
+            " || execution(public * com.realestatecrm.service.LeaderboardService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long serverTimingStart = ServerTiming.enterService();
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            meterRegistry.counter("service.errors", "service", service, "method", method, "exception", exception)
+                    .increment();
+            throw t;
+        } finally {
+            ServerTiming.exitService(serverTimingStart);
+            sample.stop(meterRegistry.timer("service.calls", "service", service, "method", method, "exception", exception));
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.realestatecrm.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement SQL statistics, fed by {@link SqlStatsDataSource} for every statement the
+ * application runs (JPA, JdbcTemplate and Flyway alike). Statements are grouped by fingerprint:
+ * the SQL with literals and IN/VALUES lists collapsed, so the same query with different arguments
+ * lands in one entry. Each entry keeps call, error and row counts, total and max time and a
+ * fixed-bucket latency histogram, all lock-free counters. Statements slower than
+ * {@code jdbc.stats.slow-ms} are logged and kept in a short list with the repository method (or
+ * failing that, the application frame) they came from. Exposed by {@link SqlStatsEndpoint}.
+ */
+@Component
+public class SqlStats {
+    private static final Logger logger = LoggerFactory.getLogger(SqlStats.class);
+
+    // Histogram bucket upper bounds in microseconds; the last bucket is everything slower
+    static final long[] BUCKET_MICROS = {100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000};
+
+    private static final String OTHER = "<other statements>";
+    private static final int MAX_CACHED_FINGERPRINTS = 10_000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAM_LIST = Pattern.compile("\\(\\?(?:, ?\\?)+\\)");
+    private static final Pattern VALUES_ROWS = Pattern.compile("(\\(\\?\\.\\.\\.\\)|\\(\\?\\))(?:, ?\\1)+");
+
+    private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final long slowNanos;
+    private final int maxFingerprints;
+    private final int slowLogSize;
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ArrayDeque<SlowStatement> slowLog = new ArrayDeque<>();
+    private volatile Instant since = Instant.now();
+
+    public SqlStats(@Value("${jdbc.stats.enabled:true}") boolean enabled,
+                    @Value("${jdbc.stats.slow-ms:200}") long slowMs,
+                    @Value("${jdbc.stats.max-fingerprints:2000}") int maxFingerprints,
+                    @Value("${jdbc.stats.slow-log-size:100}") int slowLogSize) {
+        this.enabled = enabled;
+        this.slowNanos = slowMs * 1_000_000;
+        this.maxFingerprints = maxFingerprints;
+        this.slowLogSize = slowLogSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // --- Origin tracking: set by RepositoryOriginPostProcessor around every repository call ---
+
+    static String enterRepository(String method) {
+        String previous = REPOSITORY_METHOD.get();
+        REPOSITORY_METHOD.set(method);
+        return previous;
+    }
+
+    static void exitRepository(String previous) {
+        if (previous == null) REPOSITORY_METHOD.remove();
+        else REPOSITORY_METHOD.set(previous);
+    }
+
+    // --- Recording ---
+
+    /** Returns the entry a statement is counted in, so rows read later can be added to it. */
+    public Entry record(String sql, long elapsedNanos, long rows, boolean failed) {
+        ServerTiming.addDb(elapsedNanos);
+        Entry entry = entry(sql);
+        entry.calls.increment();
+        entry.totalNanos.add(elapsedNanos);
+        entry.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        entry.buckets[bucket(elapsedNanos / 1_000)].increment();
+        if (rows > 0) entry.rows.add(rows);
+        if (failed) entry.errors.increment();
+        String repositoryMethod = REPOSITORY_METHOD.get();
+        if (repositoryMethod != null) entry.lastOrigin = repositoryMethod;
+        if (elapsedNanos >= slowNanos) slow(entry, sql, elapsedNanos, repositoryMethod);
+        return entry;
+    }
+
+    private Entry entry(String sql) {
+        String fingerprint = fingerprint(sql);
+        Entry entry = entries.get(fingerprint);
+        if (entry != null) return entry;
+        if (entries.size() >= maxFingerprints) return entries.computeIfAbsent(OTHER, Entry::new);
+        return entries.computeIfAbsent(fingerprint, Entry::new);
+    }
+
+    String fingerprint(String sql) {
+        String cached = fingerprints.get(sql);
+        if (cached != null) return cached;
+        String fingerprint = normalise(sql);
+        if (fingerprints.size() < MAX_CACHED_FINGERPRINTS) fingerprints.put(sql, fingerprint);
+        return fingerprint;
+    }
+
+    static String normalise(String sql) {
+        String s = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        s = STRING_LITERAL.matcher(s).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = PARAM_LIST.matcher(s).replaceAll("(?...)");
+        return VALUES_ROWS.matcher(s).replaceAll("$1, ...");
+    }
+
+    private static int bucket(long micros) {
+        for (int i = 0; i < BUCKET_MICROS.length; i++) {
+            if (micros <= BUCKET_MICROS[i]) return i;
+        }
+        return BUCKET_MICROS.length;
+    }
+
+    private void slow(Entry entry, String sql, long elapsedNanos, String repositoryMethod) {
+        String origin = repositoryMethod != null ? repositoryMethod : callerFrame();
+        entry.lastSlowOrigin = origin;
+        logger.warn("Slow SQL ({} ms) from {}: {}", elapsedNanos / 1_000_000, origin, entry.fingerprint);
+        synchronized (slowLog) {
+            if (slowLog.size() >= slowLogSize) slowLog.removeFirst();
+            slowLog.addLast(new SlowStatement(Instant.now().toString(), elapsedNanos / 1_000_000.0, origin, sql));
+        }
+    }
+
+    // First application frame outside this JDBC wrapper, for statements not run through a repository
+    private static String callerFrame() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("com.realestatecrm.")
+                        && !f.getClassName().startsWith("com.realestatecrm.config.SqlStats"))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1)
+                        + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    // --- Reporting ---
+
+    public enum Sort { TOTAL, MEAN, CALLS, MAX, ROWS }
+
+    public Map<String, Object> report(Sort sort, int limit) {
+        Comparator<Entry> order = switch (sort) {
+            case TOTAL -> Comparator.comparingLong(e -> e.totalNanos.sum());
+            case MEAN -> Comparator.comparingDouble(Entry::meanNanos);
+            case CALLS -> Comparator.comparingLong(e -> e.calls.sum());
+            case MAX -> Comparator.comparingLong(e -> e.maxNanos.get());
+            case ROWS -> Comparator.comparingLong(e -> e.rows.sum());
+        };
+        List<Map<String, Object>> statements = entries.values().stream()
+                .sorted(order.reversed())
+                .limit(limit)
+                .map(Entry::toMap)
+                .toList();
+        List<SlowStatement> slow;
+        synchronized (slowLog) {
+            slow = new ArrayList<>(slowLog);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("since", since.toString());
+        report.put("fingerprints", entries.size());
+        report.put("sort", sort.name().toLowerCase());
+        report.put("statements", statements);
+        report.put("slow", slow.reversed());
+        return report;
+    }
+
+    public void reset() {
+        entries.clear();
+        synchronized (slowLog) {
+            slowLog.clear();
+        }
+        since = Instant.now();
+    }
+
+    public static class Entry {
+        final String fingerprint;
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final LongAdder[] buckets = new LongAdder[BUCKET_MICROS.length + 1];
+        volatile String lastOrigin;
+        volatile String lastSlowOrigin;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+            for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        public void addRows(long n) {
+            rows.add(n);
+        }
+
+        double meanNanos() {
+            long n = calls.sum();
+            return n == 0 ? 0 : (double) totalNanos.sum() / n;
+        }
+
+        // Upper bound of the bucket holding the p-th percentile (capped at the max seen), in ms
+        private double percentileMs(double p) {
+            long[] counts = new long[buckets.length];
+            long total = 0;
+            for (int i = 0; i < buckets.length; i++) total += counts[i] = buckets[i].sum();
+            long rank = (long) Math.ceil(p * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && counts[i] > 0) {
+                    double maxMs = Math.round(maxNanos.get() / 1e4) / 100.0;
+                    return i < BUCKET_MICROS.length ? Math.min(BUCKET_MICROS[i] / 1000.0, maxMs) : maxMs;
+                }
+            }
+            return 0;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            long n = calls.sum();
+            map.put("fingerprint", fingerprint);
+            map.put("calls", n);
+            map.put("errors", errors.sum());
+            map.put("rows", rows.sum());
+            map.put("rowsPerCall", n == 0 ? 0 : Math.round(rows.sum() * 10.0 / n) / 10.0);
+            map.put("totalMs", Math.round(totalNanos.sum() / 1e5) / 10.0);
+            map.put("meanMs", Math.round(meanNanos() / 1e4) / 100.0);
+            map.put("p50Ms", percentileMs(0.50));
+            map.put("p95Ms", percentileMs(0.95));
+            map.put("p99Ms", percentileMs(0.99));
+            map.put("maxMs", Math.round(maxNanos.get() / 1e4) / 100.0);
+            map.put("origin", lastOrigin);
+            map.put("slowOrigin", lastSlowOrigin);
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < buckets.length; i++) {
+                long count = buckets[i].sum();
+                if (count == 0) continue;
+                histogram.put(i < BUCKET_MICROS.length ? "le " + BUCKET_MICROS[i] / 1000.0 + " ms"
+                        : "> " + BUCKET_MICROS[BUCKET_MICROS.length - 1] / 1000 + " ms", count);
+            }
+            map.put("histogram", histogram);
+            return map;
+        }
+    }
+
+    public record SlowStatement(String at, double elapsedMs, String origin, String sql) {}
+}
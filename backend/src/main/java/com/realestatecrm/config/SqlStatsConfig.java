@@ -0,0 +1,54 @@
+package com.realestatecrm.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+
+// Wires per-statement SQL statistics: wraps the "dataSource" bean (Boot's pool, or the replica
+// routing proxy) in SqlStatsDataSource and tags each repository call so slow statements name it.
+@Configuration
+public class SqlStatsConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlStatsDataSourceWrapper(ObjectProvider<SqlStats> stats) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) return bean;
+                SqlStats sqlStats = stats.getObject();
+                return sqlStats.isEnabled() ? new SqlStatsDataSource(dataSource, sqlStats) : bean;
+            }
+        };
+    }
+
+    // Repository proxies are built in afterPropertiesSet, so the advice has to be added before it
+    @Bean
+    public static BeanPostProcessor sqlStatsRepositoryOrigin() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> {
+                                String repository = information.getRepositoryInterface().getSimpleName();
+                                proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                                    String previous = SqlStats.enterRepository(
+                                            repository + "." + invocation.getMethod().getName());
+                                    try {
+                                        return invocation.proceed();
+                                    } finally {
+                                        SqlStats.exitRepository(previous);
+                                    }
+                                });
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package com.realestatecrm.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps the application DataSource so every statement execution is timed and reported to
+ * {@link SqlStats}. Connections, statements and result sets are JDK proxies that forward each call
+ * unchanged; only the execute methods are timed, and result sets count the rows read through
+ * {@code next()} and add them to the statement's entry on close. {@code unwrap} reaches the
+ * driver objects as before.
+ */
+public class SqlStatsDataSource extends DelegatingDataSource {
+
+    private final SqlStats stats;
+
+    public SqlStatsDataSource(DataSource target, SqlStats stats) {
+        super(target);
+        this.stats = stats;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatsDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Identity semantics for the proxy itself; everything else goes to the target
+    private abstract static class Forwarding implements InvocationHandler {
+        final Object target;
+
+        Forwarding(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "SqlStats[" + target + "]";
+                default -> handle(proxy, method, args);
+            };
+        }
+
+        abstract Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+    }
+
+    private class ConnectionHandler extends Forwarding {
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlStatsDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> SqlStatsDataSource.proxy(PreparedStatement.class,
+                        new StatementHandler(result, (String) args[0]));
+                case "prepareCall" -> SqlStatsDataSource.proxy(CallableStatement.class,
+                        new StatementHandler(result, (String) args[0]));
+                case "createStatement" -> SqlStatsDataSource.proxy(Statement.class, new StatementHandler(result, null));
+                default -> result;
+            };
+        }
+    }
+
+    private class StatementHandler extends Forwarding {
+        // Prepared SQL, or for plain statements the SQL of the last execute/addBatch
+        private String sql;
+        private SqlStats.Entry lastEntry;
+
+        StatementHandler(Object target, String sql) {
+            super(target);
+            this.sql = sql;
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (name.equals("addBatch") && args != null && args.length > 0) sql = (String) args[0];
+                Object result = SqlStatsDataSource.invoke(target, method, args);
+                return name.equals("getResultSet") && result != null ? resultSet((ResultSet) result) : result;
+            }
+
+            if (args != null && args.length > 0 && args[0] instanceof String s) sql = s;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = SqlStatsDataSource.invoke(target, method, args);
+            } catch (Throwable t) {
+                if (sql != null) stats.record(sql, System.nanoTime() - start, 0, true);
+                throw t;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (sql == null) return result;
+            lastEntry = stats.record(sql, elapsed, updateCount(result), false);
+            return result instanceof ResultSet rs ? resultSet(rs) : result;
+        }
+
+        private ResultSet resultSet(ResultSet rs) {
+            return SqlStatsDataSource.proxy(ResultSet.class, new ResultSetHandler(rs, lastEntry));
+        }
+
+        private long updateCount(Object result) {
+            if (result instanceof Integer n) return Math.max(0, n);
+            if (result instanceof Long n) return Math.max(0, n);
+            long total = 0;
+            if (result instanceof int[] counts) for (int n : counts) total += Math.max(0, n);
+            if (result instanceof long[] counts) for (long n : counts) total += Math.max(0, n);
+            return total;
+        }
+    }
+
+    private static class ResultSetHandler extends Forwarding {
+        private final SqlStats.Entry entry;
+        private long rows;
+        private boolean counted;
+
+        ResultSetHandler(ResultSet target, SqlStats.Entry entry) {
+            super(target);
+            this.entry = entry;
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlStatsDataSource.invoke(target, method, args);
+            switch (method.getName()) {
+                case "next" -> {
+                    if ((Boolean) result) rows++;
+                }
+                case "close" -> {
+                    if (!counted && entry != null) {
+                        counted = true;
+                        entry.addRows(rows);
+                    }
+                }
+                default -> { }
+            }
+            return result;
+        }
+    }
+}
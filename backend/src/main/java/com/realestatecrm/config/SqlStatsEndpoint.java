@@ -0,0 +1,49 @@
+package com.realestatecrm.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/sqlstats: the top statements by fingerprint with their latency histograms, plus the
+ * recent slow statements. {@code /actuator/sqlstats/{sort}} picks the order
+ * (total|mean|calls|max|rows, default total) and {@code /actuator/sqlstats/{sort}/{limit}} also the
+ * number of statements (default 20). DELETE clears the counters, e.g. before a load test. Admin
+ * only (SecurityConfig), since the slow list carries raw SQL.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SqlStats stats;
+
+    public SqlStatsEndpoint(SqlStats stats) {
+        this.stats = stats;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statements() {
+        return stats.report(SqlStats.Sort.TOTAL, DEFAULT_LIMIT);
+    }
+
+    @ReadOperation
+    public Map<String, Object> statements(@Selector String sort) {
+        return stats.report(SqlStats.Sort.valueOf(sort.toUpperCase()), DEFAULT_LIMIT);
+    }
+
+    @ReadOperation
+    public Map<String, Object> statements(@Selector String sort, @Selector int limit) {
+        return stats.report(SqlStats.Sort.valueOf(sort.toUpperCase()), Math.max(1, limit));
+    }
+
+    @DeleteOperation
+    public void reset() {
+        stats.reset();
+    }
+}
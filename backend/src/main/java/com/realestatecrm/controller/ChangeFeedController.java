@@ -0,0 +1,42 @@
+package com.realestatecrm.controller;
+
+import com.realestatecrm.dto.ChangeFeedDtos;
+import com.realestatecrm.service.ChangeFeedService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/changes")
+@CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173"})
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    // --- Changes Since Cursor (GET /api/v1/changes?since=&limit=) ---
+    // Without since, returns the current head cursor only; 410 when the cursor has expired
+    @GetMapping
+    public ResponseEntity<?> getChanges(
+            @RequestParam(value = "since", required = false) String since,
+            @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        try {
+            if (limit < 1 || limit > changeFeedService.getMaxPageSize()) {
+                return ResponseEntity.badRequest().body("limit must be between 1 and " + changeFeedService.getMaxPageSize());
+            }
+            return ResponseEntity.ok(changeFeedService.changes(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // --- Compact and Expire Now (POST /api/v1/changes/maintenance) ---
+    @PostMapping("/maintenance")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ChangeFeedDtos.MaintenanceResult> runMaintenance() {
+        return ResponseEntity.ok(changeFeedService.maintain());
+    }
+}
@@ -0,0 +1,72 @@
+package com.realestatecrm.controller;
+
+import com.realestatecrm.dto.CommissionDtos;
+import com.realestatecrm.service.CommissionLedgerService;
+import com.realestatecrm.service.CommissionService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/commissions")
+@CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173"})
+public class CommissionController {
+
+    private final CommissionService commissionService;
+    private final CommissionLedgerService ledgerService;
+
+    public CommissionController(CommissionService commissionService, CommissionLedgerService ledgerService) {
+        this.commissionService = commissionService;
+        this.ledgerService = ledgerService;
+    }
+
+    // --- Monthly ledger for one agent (GET /api/v1/commissions/ledger/{userId}?year=) ---
+    @GetMapping("/ledger/{userId}")
+    public ResponseEntity<CommissionDtos.LedgerResponse> getLedger(
+            @PathVariable UUID userId,
+            @RequestParam(value = "year", required = false) Integer year) {
+        int y = year != null ? year : Year.now().getValue();
+        return ResponseEntity.ok(ledgerService.getLedger(userId, y));
+    }
+
+    // --- Records behind one ledger month (GET /api/v1/commissions/ledger/{userId}/records?month=yyyy-MM) ---
+    @GetMapping("/ledger/{userId}/records")
+    public ResponseEntity<?> getLedgerRecords(@PathVariable UUID userId, @RequestParam("month") String month) {
+        try {
+            List<CommissionDtos.CommissionRecordResponse> records =
+                    ledgerService.getMonthRecords(userId, YearMonth.parse(month));
+            return ResponseEntity.ok(records);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid month, expected yyyy-MM: " + month);
+        }
+    }
+
+    // --- Verify rollups against raw records (POST /api/v1/commissions/ledger/reconcile?repair=) ---
+    @PostMapping("/ledger/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CommissionDtos.ReconcileResult> reconcile(
+            @RequestParam(value = "repair", defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(ledgerService.reconcile(repair));
+    }
+
+    // --- Recompute amounts for a date range (POST /api/v1/commissions/recompute?from=&to=) ---
+    @PostMapping("/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> recompute(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        try {
+            return ResponseEntity.ok(commissionService.recompute(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -2,12 +2,23 @@ package com.realestatecrm.controller;
 
 import com.realestatecrm.dto.LeadDtos;
 import com.realestatecrm.entity.Lead;
+import com.realestatecrm.service.LeadArchiveService;
+import com.realestatecrm.service.LeadImportService;
 import com.realestatecrm.service.LeadService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/leads")
@@ -15,14 +26,19 @@ import java.util.UUID;
 public class LeadController {
 
     private final LeadService leadService;
+    private final LeadImportService leadImportService;
+    private final LeadArchiveService leadArchiveService;
     
-    public LeadController(LeadService leadService) { 
+    public LeadController(LeadService leadService, LeadImportService leadImportService,
+                          LeadArchiveService leadArchiveService) { 
         this.leadService = leadService; 
+        this.leadImportService = leadImportService;
+        this.leadArchiveService = leadArchiveService;
     }
 
     // --- Create Lead (POST /api/v1/leads) ---
     @PostMapping
-    public ResponseEntity<Lead> createLead(@RequestBody LeadDtos.CreateLeadRequest req) {
+    public ResponseEntity<LeadDtos.LeadResponse> createLead(@RequestBody LeadDtos.CreateLeadRequest req) {
         Lead l = new Lead();
         l.setFirstName(req.firstName);
         l.setLastName(req.lastName);
@@ -30,27 +46,54 @@ public class LeadController {
         l.setPhone(req.phone);
         l.setSource(req.source);
         Lead saved = leadService.create(l);
-        return ResponseEntity.ok(saved);
+        return ResponseEntity.ok(LeadDtos.LeadResponse.fromEntity(saved));
     }
 
-    // --- List All Leads (GET /api/v1/leads) ---
+    // --- List Leads (GET /api/v1/leads?includeClosed=&fields=) ---
     @GetMapping
-    public ResponseEntity<List<Lead>> listLeads() {
-        return ResponseEntity.ok(leadService.list());
+    public ResponseEntity<?> listLeads(
+            @RequestParam(value = "includeClosed", defaultValue = "false") boolean includeClosed,
+            @RequestParam(value = "fields", required = false) String fields) {
+        if (fields == null) {
+            List<LeadDtos.LeadResponse> response = leadService.list(includeClosed).stream()
+                    .map(LeadDtos.LeadResponse::fromEntity)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(response);
+        }
+        try {
+            return ResponseEntity.ok(leadService.listFields(fields, includeClosed));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // --- Search Leads (GET /api/v1/leads/search?q=&includeClosed=) ---
+    @GetMapping("/search")
+    public ResponseEntity<?> searchLeads(@RequestParam("q") String q,
+                                         @RequestParam(value = "limit", required = false) Integer limit,
+                                         @RequestParam(value = "includeClosed", defaultValue = "false") boolean includeClosed) {
+        try {
+            List<LeadDtos.LeadResponse> response = leadService.search(q, limit, includeClosed).stream()
+                    .map(LeadDtos.LeadResponse::fromEntity)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // --- Get Lead by ID (GET /api/v1/leads/{id}) ---
     @GetMapping("/{id}")
-    public ResponseEntity<Lead> getLeadById(@PathVariable UUID id) {
+    public ResponseEntity<LeadDtos.LeadResponse> getLeadById(@PathVariable UUID id) {
         Lead lead = leadService.findById(id); 
-        return ResponseEntity.ok(lead);
+        return ResponseEntity.ok(LeadDtos.LeadResponse.fromEntity(lead));
     }
     
     // --- Update Lead (PUT /api/v1/leads/{id}) ---
     @PutMapping("/{id}")
-    public ResponseEntity<Lead> updateLead(@PathVariable("id") UUID id, @RequestBody LeadDtos.CreateLeadRequest req) {
+    public ResponseEntity<LeadDtos.LeadResponse> updateLead(@PathVariable("id") UUID id, @RequestBody LeadDtos.CreateLeadRequest req) {
         Lead updated = leadService.update(id, req); 
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok(LeadDtos.LeadResponse.fromEntity(updated));
     }
 
     // --- Delete Lead (DELETE /api/v1/leads/{id}) ---
@@ -64,7 +107,69 @@ public class LeadController {
     @PutMapping("/{id}/assign")
     public ResponseEntity<?> assign(@PathVariable("id") UUID id, @RequestBody LeadDtos.AssignRequest req) {
         Lead updated = leadService.assign(id, req.assignedTo);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok(LeadDtos.LeadResponse.fromEntity(updated));
+    }
+
+    // --- Bulk Reassign (POST /api/v1/leads/bulk-assign) ---
+    @PostMapping("/bulk-assign")
+    public ResponseEntity<?> bulkAssign(@RequestBody LeadDtos.BulkAssignRequest req) {
+        try {
+            return ResponseEntity.ok(leadService.bulkAssign(req));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // --- Claim Next Unassigned Lead (POST /api/v1/leads/claim) ---
+    @PostMapping("/claim")
+    public ResponseEntity<LeadDtos.LeadResponse> claimNext(Principal principal) {
+        return leadService.claimNext(principal.getName())
+                .map(lead -> ResponseEntity.ok(LeadDtos.LeadResponse.fromEntity(lead)))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    // --- Start CSV Import (POST /api/v1/leads/import) ---
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importLeads(@RequestParam("file") MultipartFile file) throws IOException {
+        try {
+            LeadImportService.ImportJob job = leadImportService.startImport(file);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toResponse());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // --- Import Progress (GET /api/v1/leads/import/{jobId}) ---
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<LeadDtos.ImportJobResponse> importStatus(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(leadImportService.getJob(jobId).toResponse());
+    }
+
+    // --- Import Error Report (GET /api/v1/leads/import/{jobId}/errors) ---
+    @GetMapping("/import/{jobId}/errors")
+    public ResponseEntity<?> importErrors(@PathVariable UUID jobId) {
+        try {
+            FileSystemResource report = new FileSystemResource(leadImportService.getErrorReport(jobId));
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"lead-import-" + jobId + "-errors.csv\"")
+                    .contentType(MediaType.parseMediaType("text/csv"))
+                    .body(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    // --- Archive Old Closed Leads Now (POST /api/v1/leads/archive/run) ---
+    @PostMapping("/archive/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LeadDtos.ArchiveResult> runArchive() {
+        return ResponseEntity.ok(leadArchiveService.archive());
+    }
+
+    // --- Get Archived Lead (GET /api/v1/leads/archive/{id}) ---
+    @GetMapping(value = "/archive/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getArchivedLead(@PathVariable UUID id) {
+        return ResponseEntity.ok(leadArchiveService.getArchivedLead(id));
     }
 
     // --- Update Status (PATCH /api/v1/leads/{id}/status) ---
@@ -72,8 +177,8 @@ public class LeadController {
     public ResponseEntity<?> updateStatus(@PathVariable("id") UUID id, @RequestBody LeadDtos.StatusUpdateRequest req) {
         try {
             Lead.Status s = Lead.Status.valueOf(req.status);
-            Lead updated = leadService.updateStatus(id, s);
-            return ResponseEntity.ok(updated);
+            Lead updated = leadService.updateStatus(id, s, req.unitId);
+            return ResponseEntity.ok(LeadDtos.LeadResponse.fromEntity(updated));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Invalid status value: " + req.status);
         }
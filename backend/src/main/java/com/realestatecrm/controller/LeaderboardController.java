@@ -0,0 +1,37 @@
+package com.realestatecrm.controller;
+
+import com.realestatecrm.service.LeaderboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/v1/leaderboard")
+@CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173"})
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    // --- Current leaderboard (GET /api/v1/leaderboard?period=WEEK|MONTH&metric=DEALS|COMMISSION&limit=) ---
+    @GetMapping
+    public ResponseEntity<?> getLeaderboard(
+            @RequestParam(value = "period", defaultValue = "WEEK") String period,
+            @RequestParam(value = "metric", defaultValue = "COMMISSION") String metric,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        try {
+            LeaderboardService.Period p = LeaderboardService.Period.valueOf(period.toUpperCase(Locale.ROOT));
+            LeaderboardService.Metric m = LeaderboardService.Metric.valueOf(metric.toUpperCase(Locale.ROOT));
+            if (limit < 1 || limit > leaderboardService.getMaxSize()) {
+                return ResponseEntity.badRequest().body("limit must be between 1 and " + leaderboardService.getMaxSize());
+            }
+            return ResponseEntity.ok(leaderboardService.getLeaderboard(p, m, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid period or metric: " + period + ", " + metric);
+        }
+    }
+}
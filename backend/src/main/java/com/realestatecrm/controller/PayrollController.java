@@ -0,0 +1,57 @@
+package com.realestatecrm.controller;
+
+import com.realestatecrm.dto.PayrollDtos;
+import com.realestatecrm.entity.PayrollRun;
+import com.realestatecrm.service.PayrollService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/v1/payroll")
+@CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173"})
+@PreAuthorize("hasRole('ADMIN')")
+public class PayrollController {
+
+    private final PayrollService payrollService;
+
+    public PayrollController(PayrollService payrollService) {
+        this.payrollService = payrollService;
+    }
+
+    // --- Run payroll for a month (POST /api/v1/payroll/runs) ---
+    @PostMapping("/runs")
+    public ResponseEntity<?> createRun(@RequestBody PayrollDtos.CreateRunRequest request) {
+        YearMonth month;
+        try {
+            month = request.month != null ? YearMonth.parse(request.month) : YearMonth.now();
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid month, expected yyyy-MM: " + request.month);
+        }
+        PayrollRun run = payrollService.run(month);
+        return ResponseEntity.ok(PayrollDtos.RunResponse.fromEntity(run));
+    }
+
+    @GetMapping("/runs")
+    public ResponseEntity<List<PayrollDtos.RunResponse>> listRuns() {
+        return ResponseEntity.ok(payrollService.listRuns().stream()
+                .map(PayrollDtos.RunResponse::fromEntity)
+                .collect(Collectors.toList()));
+    }
+
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<PayrollDtos.RunResponse> getRun(@PathVariable UUID id) {
+        return ResponseEntity.ok(PayrollDtos.RunResponse.fromEntity(payrollService.getRun(id)));
+    }
+
+    @GetMapping("/runs/{id}/entries")
+    public ResponseEntity<List<PayrollDtos.EntryResponse>> getEntries(@PathVariable UUID id) {
+        return ResponseEntity.ok(payrollService.getEntries(id));
+    }
+}
@@ -2,12 +2,22 @@ package com.realestatecrm.controller;
 
 import com.realestatecrm.dto.PropertyDtos;
 import com.realestatecrm.entity.*;
+import com.realestatecrm.exception.ResourceNotFoundException;
+import com.realestatecrm.service.PropertyDeleteService;
 import com.realestatecrm.service.PropertyService;
+import com.realestatecrm.service.UnitSearchService;
+import com.realestatecrm.service.UnitStreamService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -18,10 +28,17 @@ import java.util.stream.Collectors;
 public class PropertyController {
 
     private final PropertyService propertyService;
+    private final UnitSearchService unitSearchService;
+    private final UnitStreamService unitStreamService;
+    private final PropertyDeleteService propertyDeleteService;
     private static final Logger logger = LoggerFactory.getLogger(PropertyController.class);
     
-    public PropertyController(PropertyService propertyService) { 
+    public PropertyController(PropertyService propertyService, UnitSearchService unitSearchService,
+                              UnitStreamService unitStreamService, PropertyDeleteService propertyDeleteService) { 
         this.propertyService = propertyService; 
+        this.unitSearchService = unitSearchService;
+        this.unitStreamService = unitStreamService;
+        this.propertyDeleteService = propertyDeleteService;
     }
 
     // === HEALTH CHECK ===
@@ -33,9 +50,12 @@ public class PropertyController {
 
     // === SITE ENDPOINTS ===
     @GetMapping("/sites")
-    public ResponseEntity<List<PropertyDtos.SiteResponse>> getAllSites() {
+    public ResponseEntity<?> getAllSites(@RequestParam(value = "fields", required = false) String fields) {
         logger.info("GET /sites - Fetching all sites");
         try {
+            if (fields != null) {
+                return ResponseEntity.ok(propertyService.getSiteFields(fields));
+            }
             List<Site> sites = propertyService.getAllSites();
             List<PropertyDtos.SiteResponse> response = sites.stream()
                 .map(PropertyDtos.SiteResponse::fromEntity)
@@ -43,6 +63,9 @@ public class PropertyController {
             
             logger.info("GET /sites - Successfully returned {} sites", response.size());
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("GET /sites - Invalid parameter: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("GET /sites - Error: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
@@ -95,12 +118,15 @@ public class PropertyController {
         }
     }
 
+    // --- Delete site with its buildings and units in the background (DELETE /sites/{id}) ---
     @DeleteMapping("/sites/{id}")
     public ResponseEntity<?> deleteSite(@PathVariable UUID id) {
         logger.info("DELETE /sites/{}", id);
         try {
-            propertyService.deleteSite(id);
-            return ResponseEntity.noContent().build();
+            PropertyDeleteService.DeleteJob job = propertyDeleteService.startSiteDelete(id);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toResponse());
+        } catch (ResourceNotFoundException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("DELETE /sites/{} - Error: {}", id, e.getMessage());
             return ResponseEntity.internalServerError().body("Failed to delete site: " + e.getMessage());
@@ -109,9 +135,12 @@ public class PropertyController {
 
     // === BUILDING ENDPOINTS ===
     @GetMapping("/buildings")
-    public ResponseEntity<List<PropertyDtos.BuildingResponse>> getAllBuildings() {
+    public ResponseEntity<?> getAllBuildings(@RequestParam(value = "fields", required = false) String fields) {
         logger.info("GET /buildings - Fetching all buildings");
         try {
+            if (fields != null) {
+                return ResponseEntity.ok(propertyService.getBuildingFields(fields, null));
+            }
             List<Building> buildings = propertyService.getAllBuildings();
             List<PropertyDtos.BuildingResponse> response = buildings.stream()
                 .map(PropertyDtos.BuildingResponse::fromEntity)
@@ -119,6 +148,9 @@ public class PropertyController {
             
             logger.info("GET /buildings - Successfully returned {} buildings", response.size());
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("GET /buildings - Invalid parameter: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("GET /buildings - Error: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
@@ -126,14 +158,21 @@ public class PropertyController {
     }
 
     @GetMapping("/sites/{siteId}/buildings")
-    public ResponseEntity<List<PropertyDtos.BuildingResponse>> getBuildingsBySite(@PathVariable UUID siteId) {
+    public ResponseEntity<?> getBuildingsBySite(@PathVariable UUID siteId,
+                                                @RequestParam(value = "fields", required = false) String fields) {
         logger.info("GET /sites/{}/buildings", siteId);
         try {
+            if (fields != null) {
+                return ResponseEntity.ok(propertyService.getBuildingFields(fields, siteId));
+            }
             List<Building> buildings = propertyService.getBuildingsBySite(siteId);
             List<PropertyDtos.BuildingResponse> response = buildings.stream()
                 .map(PropertyDtos.BuildingResponse::fromEntity)
                 .collect(Collectors.toList());
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("GET /sites/{}/buildings - Invalid parameter: {}", siteId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("GET /sites/{}/buildings - Error: {}", siteId, e.getMessage());
             return ResponseEntity.internalServerError().build();
@@ -176,56 +215,132 @@ public class PropertyController {
         }
     }
 
+    // --- Delete building with its units in the background (DELETE /buildings/{id}) ---
     @DeleteMapping("/buildings/{id}")
     public ResponseEntity<?> deleteBuilding(@PathVariable UUID id) {
         logger.info("DELETE /buildings/{}", id);
         try {
-            propertyService.deleteBuilding(id);
-            return ResponseEntity.noContent().build();
+            PropertyDeleteService.DeleteJob job = propertyDeleteService.startBuildingDelete(id);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toResponse());
+        } catch (ResourceNotFoundException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("DELETE /buildings/{} - Error: {}", id, e.getMessage());
             return ResponseEntity.internalServerError().body("Failed to delete building: " + e.getMessage());
         }
     }
 
+    // --- Delete job progress (GET /delete-jobs/{jobId}) ---
+    @GetMapping("/delete-jobs/{jobId}")
+    public ResponseEntity<PropertyDtos.DeleteJobResponse> getDeleteJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(propertyDeleteService.getJob(jobId).toResponse());
+    }
+
     // === BUILDING UNIT ENDPOINTS ===
     @GetMapping("/units")
-    public ResponseEntity<List<PropertyDtos.UnitResponse>> getAllUnits(
+    public ResponseEntity<?> getAllUnits(
             @RequestParam(value = "status", required = false) String status,
             @RequestParam(value = "type", required = false) String type,
-            @RequestParam(value = "buildingId", required = false) UUID buildingId) {
+            @RequestParam(value = "buildingId", required = false) UUID buildingId,
+            @RequestParam(value = "fields", required = false) String fields) {
         
         logger.info("GET /units - status={}, type={}, buildingId={}", status, type, buildingId);
         
         try {
-            List<BuildingUnit> units;
-            
-            if (status != null) {
-                BuildingUnit.Status unitStatus = BuildingUnit.Status.valueOf(status);
-                units = propertyService.getUnitsByStatus(unitStatus);
-            } else if (type != null) {
-                BuildingUnit.UnitType unitType = BuildingUnit.UnitType.valueOf(type);
-                units = propertyService.getUnitsByType(unitType);
-            } else if (buildingId != null) {
-                units = propertyService.getUnitsByBuilding(buildingId);
-            } else {
-                units = propertyService.getAllUnits();
+            BuildingUnit.Status unitStatus = status != null ? BuildingUnit.Status.valueOf(status) : null;
+            BuildingUnit.UnitType unitType = type != null ? BuildingUnit.UnitType.valueOf(type) : null;
+            if (fields != null) {
+                return ResponseEntity.ok(propertyService.getUnitFields(fields, unitStatus, unitType, buildingId));
             }
-            
-            List<PropertyDtos.UnitResponse> response = units.stream()
-                .map(PropertyDtos.UnitResponse::fromEntity)
-                .collect(Collectors.toList());
-                
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(propertyService.getUnits(unitStatus, unitType, buildingId));
         } catch (IllegalArgumentException e) {
             logger.warn("GET /units - Invalid parameter: {}", e.getMessage());
-            return ResponseEntity.badRequest().build();
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("GET /units - Error: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    // --- Unit search over the unit_search read model (GET /units/search) ---
+    @GetMapping("/units/search")
+    public ResponseEntity<?> searchUnits(
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "city", required = false) String city,
+            @RequestParam(value = "siteId", required = false) UUID siteId,
+            @RequestParam(value = "buildingId", required = false) UUID buildingId,
+            @RequestParam(value = "ownerId", required = false) UUID ownerId,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            @RequestParam(value = "offset", defaultValue = "0") int offset) {
+        logger.info("GET /units/search - q={}, status={}, type={}, city={}", q, status, type, city);
+        try {
+            UnitSearchService.SearchFilter filter = new UnitSearchService.SearchFilter();
+            filter.q = q;
+            filter.status = status != null ? BuildingUnit.Status.valueOf(status).name() : null;
+            filter.type = type != null ? BuildingUnit.UnitType.valueOf(type).name() : null;
+            filter.city = city;
+            filter.siteId = siteId;
+            filter.buildingId = buildingId;
+            filter.ownerId = ownerId;
+            filter.minPrice = minPrice;
+            filter.maxPrice = maxPrice;
+            filter.limit = limit;
+            filter.offset = offset;
+            return ResponseEntity.ok(unitSearchService.search(filter));
+        } catch (IllegalArgumentException e) {
+            logger.warn("GET /units/search - Invalid parameter: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("GET /units/search - Error: {}", e.getMessage());
+            return ResponseEntity.internalServerError().body("Failed to search units: " + e.getMessage());
+        }
+    }
+
+    // --- Rebuild the unit_search read model (POST /units/search/rebuild) ---
+    @PostMapping("/units/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuildUnitSearch() {
+        logger.info("POST /units/search/rebuild");
+        try {
+            return ResponseEntity.ok(unitSearchService.rebuild());
+        } catch (Exception e) {
+            logger.error("POST /units/search/rebuild - Error: {}", e.getMessage());
+            return ResponseEntity.internalServerError().body(e.getMessage());
+        }
+    }
+
+    // --- Compare unit_search with the source tables (GET /units/search/check) ---
+    @GetMapping("/units/search/check")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> checkUnitSearch() {
+        logger.info("GET /units/search/check");
+        try {
+            return ResponseEntity.ok(unitSearchService.check());
+        } catch (Exception e) {
+            logger.error("GET /units/search/check - Error: {}", e.getMessage());
+            return ResponseEntity.internalServerError().body(e.getMessage());
+        }
+    }
+
+    // --- Live unit status/price/owner changes (GET /units/stream?buildingId=&siteId=) ---
+    @GetMapping(value = "/units/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamUnits(
+            @RequestParam(value = "buildingId", required = false) UUID buildingId,
+            @RequestParam(value = "siteId", required = false) UUID siteId,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        logger.info("GET /units/stream - buildingId={}, siteId={}", buildingId, siteId);
+        try {
+            unitStreamService.subscribe(request, response, buildingId, siteId);
+        } catch (IllegalStateException e) {
+            logger.warn("GET /units/stream - {}", e.getMessage());
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+    }
+
     @GetMapping("/units/{id}")
     public ResponseEntity<PropertyDtos.UnitResponse> getUnitById(@PathVariable UUID id) {
         logger.info("GET /units/{}", id);
@@ -277,7 +392,7 @@ public class PropertyController {
             @RequestBody PropertyDtos.UpdateUnitStatusRequest request) {
         logger.info("PATCH /units/{}/status - {}", id, request.status);
         try {
-            BuildingUnit unit = propertyService.updateUnitStatus(id, request.status);
+            BuildingUnit unit = propertyService.updateUnitStatus(id, request.status, request.agentId);
             PropertyDtos.UnitResponse response = PropertyDtos.UnitResponse.fromEntity(unit);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
@@ -321,9 +436,12 @@ public class PropertyController {
 
     // === OWNER ENDPOINTS ===
     @GetMapping("/owners")
-    public ResponseEntity<List<PropertyDtos.OwnerResponse>> getAllOwners() {
+    public ResponseEntity<?> getAllOwners(@RequestParam(value = "fields", required = false) String fields) {
         logger.info("GET /owners - Fetching all owners");
         try {
+            if (fields != null) {
+                return ResponseEntity.ok(propertyService.getOwnerFields(fields));
+            }
             List<Owner> owners = propertyService.getAllOwners();
             List<PropertyDtos.OwnerResponse> response = owners.stream()
                 .map(PropertyDtos.OwnerResponse::fromEntity)
@@ -331,6 +449,9 @@ public class PropertyController {
             
             logger.info("GET /owners - Successfully returned {} owners", response.size());
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("GET /owners - Invalid parameter: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("GET /owners - Error: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
@@ -0,0 +1,31 @@
+package com.realestatecrm.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.util.List;
+import java.util.UUID;
+
+public class ChangeFeedDtos {
+    public static class ChangeEvent {
+        public String cursor;
+        public String entityType;
+        public UUID entityId;
+        public String op;
+        @JsonRawValue
+        public String payload; // the entity as its *Response DTO; null for DELETED
+        public String changedAt;
+    }
+
+    public static class ChangesResponse {
+        public List<ChangeEvent> changes;
+        public String nextCursor; // pass back as ?since= to continue
+        public boolean hasMore;
+    }
+
+    public static class MaintenanceResult {
+        public long expired;
+        public long compacted;
+        public String horizon; // oldest cursor still served
+        public long durationMs;
+    }
+}
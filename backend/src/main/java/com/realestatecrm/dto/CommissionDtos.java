@@ -0,0 +1,72 @@
+package com.realestatecrm.dto;
+
+import com.realestatecrm.entity.CommissionMonthlyRollup;
+import com.realestatecrm.entity.CommissionRecord;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class CommissionDtos {
+
+    public static class LedgerResponse {
+        public UUID userId;
+        public int year;
+        public long recordCount;
+        public BigDecimal totalAmount = BigDecimal.ZERO;
+        public List<LedgerMonth> months = new ArrayList<>();
+    }
+
+    public static class LedgerMonth {
+        public String month; // yyyy-MM
+        public long recordCount;
+        public BigDecimal totalAmount;
+
+        public static LedgerMonth fromEntity(CommissionMonthlyRollup rollup) {
+            LedgerMonth response = new LedgerMonth();
+            response.month = rollup.getPeriodMonth().toString().substring(0, 7);
+            response.recordCount = rollup.getRecordCount();
+            response.totalAmount = rollup.getTotalAmount();
+            return response;
+        }
+    }
+
+    public static class CommissionRecordResponse {
+        public UUID id;
+        public UUID unitId;
+        public UUID leadId;
+        public BigDecimal saleAmount;
+        public BigDecimal rate;
+        public BigDecimal amount;
+        public String details;
+        public String issuedAt;
+
+        public static CommissionRecordResponse fromEntity(CommissionRecord record) {
+            CommissionRecordResponse response = new CommissionRecordResponse();
+            response.id = record.getId();
+            response.unitId = record.getUnitId();
+            response.leadId = record.getLeadId();
+            response.saleAmount = record.getSaleAmount();
+            response.rate = record.getRate();
+            response.amount = record.getAmount();
+            response.details = record.getDetails();
+            response.issuedAt = record.getIssuedAt() != null ? record.getIssuedAt().toString() : null;
+            return response;
+        }
+    }
+
+    public static class ReconcileMismatch {
+        public UUID userId;
+        public String month;
+        public long rollupCount;
+        public BigDecimal rollupAmount;
+        public long recordCount;
+        public BigDecimal recordAmount;
+    }
+
+    public static class ReconcileResult {
+        public boolean repaired;
+        public List<ReconcileMismatch> mismatches = new ArrayList<>();
+    }
+}
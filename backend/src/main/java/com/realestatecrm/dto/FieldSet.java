@@ -0,0 +1,61 @@
+package com.realestatecrm.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fields a list endpoint can return under {@code ?fields=} (sparse fieldsets), each mapped to
+ * the entity attribute path it is read from, so only those columns are selected. A path like
+ * {@code building.id} reads the foreign key column, {@code building.name} left-joins the
+ * association, and {@code size(buildings)} counts a collection in a subquery. Declared next to the
+ * response class whose field names it mirrors.
+ */
+public final class FieldSet {
+
+    public record Field(String name, String path, Object constant) {}
+
+    private final Map<String, Field> fields = new LinkedHashMap<>();
+
+    public static FieldSet of() {
+        return new FieldSet();
+    }
+
+    public FieldSet field(String name, String path) {
+        fields.put(name, new Field(name, path, null));
+        return this;
+    }
+
+    // A field the full response always fills with the same value; returned without touching SQL
+    public FieldSet constant(String name, Object value) {
+        fields.put(name, new Field(name, null, value));
+        return this;
+    }
+
+    /**
+     * Parses a comma-separated {@code fields} value. {@code id} is always included, first; the rest
+     * keep the requested order.
+     *
+     * @throws IllegalArgumentException on a field the response does not have
+     */
+    public List<Field> select(String requested) {
+        List<Field> selected = new ArrayList<>();
+        selected.add(fields.get("id"));
+        for (String name : requested.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty() || trimmed.equals("id")) continue;
+            Field field = fields.get(trimmed);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field '" + trimmed + "'; allowed: " + names());
+            }
+            if (!selected.contains(field)) selected.add(field);
+        }
+        return selected;
+    }
+
+    public Collection<String> names() {
+        return fields.keySet();
+    }
+}
@@ -1,5 +1,8 @@
 package com.realestatecrm.dto;
 
+import com.realestatecrm.entity.Lead;
+
+import java.util.List;
 import java.util.UUID;
 
 public class LeadDtos {
@@ -20,14 +23,66 @@ public class LeadDtos {
         public String source;
         public String status;
         public UUID assignedTo;
+
+        // ?fields= on GET /leads
+        public static final FieldSet FIELDS = FieldSet.of()
+                .field("id", "id").field("firstName", "firstName").field("lastName", "lastName")
+                .field("email", "email").field("phone", "phone").field("source", "source")
+                .field("status", "status").field("assignedTo", "assignedTo.id");
+
+        public static LeadResponse fromEntity(Lead lead) {
+            LeadResponse response = new LeadResponse();
+            response.id = lead.getId();
+            response.firstName = lead.getFirstName();
+            response.lastName = lead.getLastName();
+            response.email = lead.getEmail();
+            response.phone = lead.getPhone();
+            response.source = lead.getSource();
+            response.status = lead.getStatus() != null ? lead.getStatus().name() : null;
+            // Reading the id of the lazy proxy does not load the user
+            response.assignedTo = lead.getAssignedTo() != null ? lead.getAssignedTo().getId() : null;
+            return response;
+        }
     }
 
     public static class StatusUpdateRequest {
         public String status;
         public String note;
+        public UUID unitId; // unit sold/leased, used for the commission when closing as CLOSED_WON
     }
 
     public static class AssignRequest {
         public UUID assignedTo;
     }
+
+    public static class BulkAssignRequest {
+        public List<UUID> leadIds;  // explicit leads to move, or
+        public UUID fromUserId;     // every open lead currently held by this user
+        public UUID assignedTo;
+    }
+
+    public static class BulkAssignResponse {
+        public Integer requested;   // null when reassigning by filter
+        public int updated;
+    }
+
+    public static class ImportJobResponse {
+        public UUID jobId;
+        public String fileName;
+        public String status;       // QUEUED, RUNNING, COMPLETED, FAILED
+        public long rowsRead;
+        public long rowsImported;
+        public long rowsRejected;
+        public long rowsPerSecond;
+        public String startedAt;
+        public String finishedAt;
+        public String error;
+    }
+
+    public static class ArchiveResult {
+        public String cutoff;
+        public long archived;
+        public int batches;
+        public long durationMs;
+    }
 }
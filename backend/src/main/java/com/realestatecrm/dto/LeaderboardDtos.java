@@ -0,0 +1,24 @@
+package com.realestatecrm.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public class LeaderboardDtos {
+
+    public static class LeaderboardResponse {
+        public String period;      // WEEK or MONTH
+        public String metric;      // DEALS or COMMISSION
+        public String periodStart; // yyyy-MM-dd, UTC
+        public String asOf;
+        public List<Entry> entries;
+    }
+
+    public static class Entry {
+        public int rank;
+        public UUID userId;
+        public String name;
+        public long deals;
+        public BigDecimal commission;
+    }
+}
@@ -0,0 +1,57 @@
+package com.realestatecrm.dto;
+
+import com.realestatecrm.entity.PayrollRun;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public class PayrollDtos {
+
+    public static class CreateRunRequest {
+        public String month; // yyyy-MM
+    }
+
+    public static class RunResponse {
+        public UUID id;
+        public String month;
+        public String status;
+        public int userCount;
+        public BigDecimal totalBase;
+        public BigDecimal totalCommission;
+        public BigDecimal totalPay;
+        public Long readMs;
+        public Long computeMs;
+        public Long writeMs;
+        public Long totalMs;
+        public String error;
+        public String startedAt;
+        public String finishedAt;
+
+        public static RunResponse fromEntity(PayrollRun run) {
+            RunResponse response = new RunResponse();
+            response.id = run.getId();
+            response.month = run.getPeriodMonth().toString().substring(0, 7);
+            response.status = run.getStatus().name();
+            response.userCount = run.getUserCount();
+            response.totalBase = run.getTotalBase();
+            response.totalCommission = run.getTotalCommission();
+            response.totalPay = run.getTotalPay();
+            response.readMs = run.getReadMs();
+            response.computeMs = run.getComputeMs();
+            response.writeMs = run.getWriteMs();
+            response.totalMs = run.getTotalMs();
+            response.error = run.getError();
+            response.startedAt = run.getStartedAt() != null ? run.getStartedAt().toString() : null;
+            response.finishedAt = run.getFinishedAt() != null ? run.getFinishedAt().toString() : null;
+            return response;
+        }
+    }
+
+    public static class EntryResponse {
+        public UUID userId;
+        public String compensationType;
+        public BigDecimal baseSalary;
+        public BigDecimal commission;
+        public BigDecimal totalPay;
+    }
+}
@@ -35,6 +35,15 @@ public class PropertyDtos {
         public String createdAt;
         public Integer buildingCount;
 
+        // ?fields= on GET /sites
+        public static final FieldSet FIELDS = FieldSet.of()
+                .field("id", "id").field("name", "name")
+                .field("addressLine1", "addressLine1").field("addressLine2", "addressLine2")
+                .field("city", "city").field("state", "state").field("country", "country")
+                .field("postalCode", "postalCode").field("parkingAvailable", "parkingAvailable")
+                .field("description", "description").field("createdAt", "createdAt")
+                .field("buildingCount", "size(buildings)");
+
         public static SiteResponse fromEntity(Site site) {
             SiteResponse response = new SiteResponse();
             response.id = site.getId();
@@ -48,7 +57,7 @@ public class PropertyDtos {
             response.parkingAvailable = site.getParkingAvailable();
             response.description = site.getDescription();
             response.createdAt = site.getCreatedAt().toString();
-            response.buildingCount = site.getBuildings() != null ? site.getBuildings().size() : 0;
+            response.buildingCount = site.getBuildingCount() != null ? site.getBuildingCount() : 0;
             return response;
         }
     }
@@ -71,6 +80,13 @@ public class PropertyDtos {
         public String createdAt;
         public Integer unitCount;
 
+        // ?fields= on GET /buildings and GET /sites/{siteId}/buildings
+        public static final FieldSet FIELDS = FieldSet.of()
+                .field("id", "id").field("name", "name")
+                .field("floorCount", "floorCount").field("totalAreaSqm", "totalAreaSqm")
+                .field("siteId", "site.id").field("siteName", "site.name")
+                .field("createdAt", "createdAt").field("unitCount", "size(buildingUnits)");
+
         public static BuildingResponse fromEntity(Building building) {
             BuildingResponse response = new BuildingResponse();
             response.id = building.getId();
@@ -80,7 +96,7 @@ public class PropertyDtos {
             response.siteId = building.getSite().getId();
             response.siteName = building.getSite().getName();
             response.createdAt = building.getCreatedAt().toString();
-            response.unitCount = building.getBuildingUnits() != null ? building.getBuildingUnits().size() : 0;
+            response.unitCount = building.getUnitCount() != null ? building.getUnitCount() : 0;
             return response;
         }
     }
@@ -113,6 +129,15 @@ public class PropertyDtos {
         public String ownerName;
         public String createdAt;
 
+        // ?fields= on GET /units
+        public static final FieldSet FIELDS = FieldSet.of()
+                .field("id", "id").field("unitNumber", "unitNumber").field("type", "type")
+                .field("floor", "floor").field("areaSqm", "areaSqm").field("parkingSlots", "parkingSlots")
+                .field("price", "price").field("status", "status")
+                .field("buildingId", "building.id").field("buildingName", "building.name")
+                .field("ownerId", "owner.id").field("ownerName", "owner.name")
+                .field("createdAt", "createdAt");
+
         public static UnitResponse fromEntity(BuildingUnit unit) {
             UnitResponse response = new UnitResponse();
             response.id = unit.getId();
@@ -136,8 +161,38 @@ public class PropertyDtos {
         }
     }
 
+    // Pushed on GET /units/stream when a unit's status, price or owner changes
+    public static class UnitChange {
+        public UUID unitId;
+        public String unitNumber;
+        public UUID buildingId;
+        public UUID siteId;
+        public String status;
+        public Double price;
+        public UUID ownerId;
+        public String ownerName;
+        public String changedAt;
+
+        public static UnitChange fromEntity(BuildingUnit unit) {
+            UnitChange change = new UnitChange();
+            change.unitId = unit.getId();
+            change.unitNumber = unit.getUnitNumber();
+            change.buildingId = unit.getBuilding().getId();
+            change.siteId = unit.getBuilding().getSite() != null ? unit.getBuilding().getSite().getId() : null;
+            change.status = unit.getStatus().name();
+            change.price = unit.getPrice();
+            if (unit.getOwner() != null) {
+                change.ownerId = unit.getOwner().getId();
+                change.ownerName = unit.getOwner().getName();
+            }
+            change.changedAt = Instant.now().toString();
+            return change;
+        }
+    }
+
     public static class UpdateUnitStatusRequest {
         public String status;
+        public UUID agentId; // agent credited with the commission when moving to SOLD/LEASED
     }
 
     public static class AssignOwnerRequest {
@@ -167,6 +222,13 @@ public class PropertyDtos {
         public String createdAt;
         public Integer ownedUnitsCount;
 
+        // ?fields= on GET /owners
+        public static final FieldSet FIELDS = FieldSet.of()
+                .field("id", "id").field("name", "name").field("contactPerson", "contactPerson")
+                .field("email", "email").field("phone", "phone").field("address", "address")
+                .field("taxNumber", "taxNumber").field("notes", "notes")
+                .field("createdAt", "createdAt").constant("ownedUnitsCount", 0);
+
         public static OwnerResponse fromEntity(Owner owner) {
             OwnerResponse response = new OwnerResponse();
             response.id = owner.getId();
@@ -184,4 +246,51 @@ public class PropertyDtos {
             return response;
         }
     }
-}
\ No newline at end of file
+
+    // === DELETE JOB DTOS ===
+    public static class DeleteJobResponse {
+        public UUID jobId;
+        public String targetType;   // SITE or BUILDING
+        public UUID targetId;
+        public String status;       // QUEUED, RUNNING, COMPLETED, FAILED
+        public long unitsTotal;
+        public long unitsDeleted;
+        public long buildingsTotal;
+        public long buildingsDeleted;
+        public long batches;
+        public String startedAt;
+        public String finishedAt;
+        public String error;
+    }
+
+    // === UNIT SEARCH DTOS ===
+    public static class UnitSearchResult {
+        public UUID id;
+        public String unitNumber;
+        public String type;
+        public String status;
+        public Integer floor;
+        public Double areaSqm;
+        public Integer parkingSlots;
+        public Double price;
+        public UUID buildingId;
+        public String buildingName;
+        public UUID siteId;
+        public String siteName;
+        public String city;
+        public String country;
+        public UUID ownerId;
+        public String ownerName;
+        public String createdAt;
+    }
+
+    public static class UnitSearchCheckResult {
+        public long units;
+        public long missing;  // units without a unit_search row
+        public long stale;    // rows whose columns no longer match the source tables
+        public long orphaned; // rows left behind by a deleted unit
+        public boolean consistent;
+        public long repaired;
+        public long durationMs;
+    }
+}
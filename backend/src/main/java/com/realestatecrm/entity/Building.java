@@ -2,6 +2,7 @@ package com.realestatecrm.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Formula;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,7 +12,7 @@ import java.util.UUID;
 @Table(name = "buildings")
 public class Building {
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false)
@@ -37,6 +38,10 @@ public class Building {
     @JsonIgnore
     private List<BuildingUnit> buildingUnits = new ArrayList<>();
 
+    // Read with the row, so listing buildings does not load each building's units to count them
+    @Formula("(select count(*) from building_units u where u.building_id = id)")
+    private Integer unitCount;
+
     // Constructors, getters, setters...
     public Building() {}
 
@@ -59,5 +64,6 @@ public class Building {
     public void setSite(Site site) { this.site = site; }
     public Instant getCreatedAt() { return createdAt; }
     public List<BuildingUnit> getBuildingUnits() { return buildingUnits; }
+    public Integer getUnitCount() { return unitCount; }
     public void setBuildingUnits(List<BuildingUnit> buildingUnits) { this.buildingUnits = buildingUnits; }
 }
\ No newline at end of file
@@ -9,7 +9,7 @@ import java.util.UUID;
 @Table(name = "building_units")
 public class BuildingUnit {
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     @Column(name = "unit_number", nullable = false)
@@ -35,6 +35,10 @@ public class BuildingUnit {
     @Column(nullable = false)
     private Status status = Status.AVAILABLE;
 
+    // How many times the unit has moved into SOLD or LEASED; numbers its sales (V15)
+    @Column(name = "sale_count", nullable = false)
+    private int saleCount = 0;
+
     // FIX: Add @JsonIgnore to prevent circular reference
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "building_id", nullable = false)
@@ -55,7 +59,11 @@ public class BuildingUnit {
     }
 
     public enum Status { 
-        AVAILABLE, RESERVED, LEASED, SOLD 
+        AVAILABLE, RESERVED, LEASED, SOLD;
+
+        public boolean isClosedSale() {
+            return this == SOLD || this == LEASED;
+        }
     }
 
     // Constructors, getters, setters...
@@ -85,7 +93,11 @@ public class BuildingUnit {
     public Double getPrice() { return price; }
     public void setPrice(Double price) { this.price = price; }
     public Status getStatus() { return status; }
-    public void setStatus(Status status) { this.status = status; }
+    public void setStatus(Status status) {
+        if (status.isClosedSale() && !this.status.isClosedSale()) saleCount++;
+        this.status = status;
+    }
+    public int getSaleCount() { return saleCount; }
     public Building getBuilding() { return building; }
     public void setBuilding(Building building) { this.building = building; }
     public Owner getOwner() { return owner; }
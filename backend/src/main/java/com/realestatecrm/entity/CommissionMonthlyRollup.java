@@ -0,0 +1,66 @@
+package com.realestatecrm.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Read side of commission_monthly_rollups. Rows are written with SQL upserts by
+ * CommissionService, never through this entity.
+ */
+@Entity
+@Table(name = "commission_monthly_rollups")
+@IdClass(CommissionMonthlyRollup.Key.class)
+public class CommissionMonthlyRollup {
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "period_month")
+    private LocalDate periodMonth; // first day of the month (UTC)
+
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public UUID getUserId() { return userId; }
+    public LocalDate getPeriodMonth() { return periodMonth; }
+    public long getRecordCount() { return recordCount; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public Instant getUpdatedAt() { return updatedAt; }
+
+    public static class Key implements Serializable {
+        private UUID userId;
+        private LocalDate periodMonth;
+
+        public Key() {}
+
+        public Key(UUID userId, LocalDate periodMonth) {
+            this.userId = userId;
+            this.periodMonth = periodMonth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(userId, key.userId) && Objects.equals(periodMonth, key.periodMonth);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, periodMonth);
+        }
+    }
+}
@@ -9,7 +9,7 @@ import java.util.UUID;
 @Table(name = "commission_records")
 public class CommissionRecord {
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -19,6 +19,12 @@ public class CommissionRecord {
     private String details; // JSON or free text
     private Instant issuedAt = Instant.now();
 
+    // Sale that produced the commission (set by CommissionService)
+    private UUID unitId;
+    private UUID leadId;
+    private BigDecimal saleAmount;
+    private BigDecimal rate;
+
     // getters/setters
     public UUID getId() { return id; }
     public User getUser() { return user; }
@@ -28,4 +34,13 @@ public class CommissionRecord {
     public String getDetails() { return details; }
     public void setDetails(String details) { this.details = details; }
     public Instant getIssuedAt() { return issuedAt; }
+    public void setIssuedAt(Instant issuedAt) { this.issuedAt = issuedAt; }
+    public UUID getUnitId() { return unitId; }
+    public void setUnitId(UUID unitId) { this.unitId = unitId; }
+    public UUID getLeadId() { return leadId; }
+    public void setLeadId(UUID leadId) { this.leadId = leadId; }
+    public BigDecimal getSaleAmount() { return saleAmount; }
+    public void setSaleAmount(BigDecimal saleAmount) { this.saleAmount = saleAmount; }
+    public BigDecimal getRate() { return rate; }
+    public void setRate(BigDecimal rate) { this.rate = rate; }
 }
@@ -1,6 +1,7 @@
 package com.realestatecrm.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.PartitionKey;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -8,7 +9,7 @@ import java.util.UUID;
 @Table(name = "leads")
 public class Lead {
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     private String firstName;
@@ -26,8 +27,13 @@ public class Lead {
     @JoinColumn(name = "assigned_to")
     private User assignedTo;
 
+    // Partition key of leads (V9): Hibernate adds it to the WHERE of its UPDATEs and DELETEs
+    @PartitionKey
+    @Column(updatable = false)
     private Instant createdAt = Instant.now();
     private Instant updatedAt = Instant.now();
+    // When the lead entered its current closed status; null while open
+    private Instant closedAt;
 
     // getters / setters (generated minimally)
     public UUID getId() { return id; }
@@ -48,4 +54,6 @@ public class Lead {
     public Instant getCreatedAt() { return createdAt; }
     public Instant getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public Instant getClosedAt() { return closedAt; }
+    public void setClosedAt(Instant closedAt) { this.closedAt = closedAt; }
 }
@@ -11,7 +11,7 @@ import java.util.UUID;
 @Table(name = "owners")
 public class Owner {
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     private String name;
@@ -0,0 +1,72 @@
+package com.realestatecrm.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity
+@Table(name = "payroll_runs")
+public class PayrollRun {
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @Column(name = "period_month", nullable = false)
+    private LocalDate periodMonth; // first day of the paid month
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.RUNNING;
+
+    private int userCount;
+    private BigDecimal totalBase = BigDecimal.ZERO;
+    private BigDecimal totalCommission = BigDecimal.ZERO;
+    private BigDecimal totalPay = BigDecimal.ZERO;
+
+    // Timing breakdown of the run
+    private Long readMs;
+    private Long computeMs;
+    private Long writeMs;
+    private Long totalMs;
+
+    private String error;
+    private Instant startedAt = Instant.now();
+    private Instant finishedAt;
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    public PayrollRun() {}
+
+    public PayrollRun(LocalDate periodMonth) {
+        this.periodMonth = periodMonth;
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public LocalDate getPeriodMonth() { return periodMonth; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public int getUserCount() { return userCount; }
+    public void setUserCount(int userCount) { this.userCount = userCount; }
+    public BigDecimal getTotalBase() { return totalBase; }
+    public void setTotalBase(BigDecimal totalBase) { this.totalBase = totalBase; }
+    public BigDecimal getTotalCommission() { return totalCommission; }
+    public void setTotalCommission(BigDecimal totalCommission) { this.totalCommission = totalCommission; }
+    public BigDecimal getTotalPay() { return totalPay; }
+    public void setTotalPay(BigDecimal totalPay) { this.totalPay = totalPay; }
+    public Long getReadMs() { return readMs; }
+    public void setReadMs(Long readMs) { this.readMs = readMs; }
+    public Long getComputeMs() { return computeMs; }
+    public void setComputeMs(Long computeMs) { this.computeMs = computeMs; }
+    public Long getWriteMs() { return writeMs; }
+    public void setWriteMs(Long writeMs) { this.writeMs = writeMs; }
+    public Long getTotalMs() { return totalMs; }
+    public void setTotalMs(Long totalMs) { this.totalMs = totalMs; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+}
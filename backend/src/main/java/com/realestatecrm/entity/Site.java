@@ -2,6 +2,7 @@ package com.realestatecrm.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore; // ADD THIS IMPORT
 import jakarta.persistence.*;
+import org.hibernate.annotations.Formula;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,7 +12,7 @@ import java.util.UUID;
 @Table(name = "sites")
 public class Site {
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false)
@@ -47,6 +48,10 @@ public class Site {
     @JsonIgnore
     private List<Building> buildings = new ArrayList<>();
 
+    // Read with the row, so listing sites does not load each site's buildings to count them
+    @Formula("(select count(*) from buildings b where b.site_id = id)")
+    private Integer buildingCount;
+
     // Constructors, getters, setters remain the same...
     public Site() {}
 
@@ -79,5 +84,6 @@ public class Site {
     public void setDescription(String description) { this.description = description; }
     public Instant getCreatedAt() { return createdAt; }
     public List<Building> getBuildings() { return buildings; }
+    public Integer getBuildingCount() { return buildingCount; }
     public void setBuildings(List<Building> buildings) { this.buildings = buildings; }
 }
\ No newline at end of file
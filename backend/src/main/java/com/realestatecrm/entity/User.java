@@ -10,7 +10,7 @@ import java.util.UUID;
 public class User {
 
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     @Column(unique = true, nullable = false)
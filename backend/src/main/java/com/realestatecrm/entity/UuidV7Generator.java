@@ -0,0 +1,39 @@
+package com.realestatecrm.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDv7 (RFC 9562): 48-bit Unix millisecond timestamp, version, 12-bit counter, variant and 62
+ * random bits. New keys land at the right-hand edge of the primary-key B-tree instead of on a
+ * random page, and they share the uuid column with the existing v4 keys. The counter keeps ids
+ * from this JVM strictly increasing, even within one millisecond or if the clock steps back.
+ * {@link #generate()} is also used where rows are inserted through JDBC with client-side ids.
+ */
+public class UuidV7Generator implements IdentifierGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // (unix millis << 12) | counter of the last id handed out
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID generate() {
+        long now = System.currentTimeMillis() << 12;
+        long next = LAST.updateAndGet(last -> Math.max(last + 1, now));
+
+        long msb = (next >>> 12) << 16   // timestamp
+                | 0x7000L                  // version 7
+                | (next & 0xFFFL);         // counter
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // variant 10
+        return new UUID(msb, lsb);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        return generate();
+    }
+}
@@ -0,0 +1,9 @@
+package com.realestatecrm.exception;
+
+// Thrown when a change-feed cursor points at events already removed by retention.
+public class CursorExpiredException extends RuntimeException {
+
+    public CursorExpiredException(String message) {
+        super(message);
+    }
+}
@@ -24,6 +24,19 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
     }
-    
+
+    @ExceptionHandler(CursorExpiredException.class)
+    public ResponseEntity<Object> handleCursorExpiredException(
+            CursorExpiredException ex) {
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.GONE.value());
+        body.put("error", "Gone");
+        body.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(body, HttpStatus.GONE);
+    }
+
     // You can add other handlers here, like for bad requests, etc.
 }
\ No newline at end of file
@@ -2,11 +2,18 @@ package com.realestatecrm.repository;
 
 import com.realestatecrm.entity.Building;
 import com.realestatecrm.entity.Site;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface BuildingRepository extends JpaRepository<Building, UUID> {
+    // Lists render siteName; fetch the site in the same query
+    @Override
+    @EntityGraph(attributePaths = "site")
+    List<Building> findAll();
+
+    @EntityGraph(attributePaths = "site")
     List<Building> findBySite(Site site);
-}
\ No newline at end of file
+}
@@ -2,13 +2,26 @@ package com.realestatecrm.repository;
 
 import com.realestatecrm.entity.Building;
 import com.realestatecrm.entity.BuildingUnit;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BuildingUnitRepository extends JpaRepository<BuildingUnit, UUID> {
     List<BuildingUnit> findByStatus(BuildingUnit.Status status);
     List<BuildingUnit> findByType(BuildingUnit.UnitType type);
     List<BuildingUnit> findByBuilding(Building building);
+
+    /**
+     * Loads the unit with {@code SELECT ... FOR UPDATE}, so concurrent status changes of the same
+     * unit are applied one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from BuildingUnit u where u.id = :id")
+    Optional<BuildingUnit> lockById(@Param("id") UUID id);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.realestatecrm.repository;
+
+import com.realestatecrm.entity.CommissionMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface CommissionMonthlyRollupRepository
+        extends JpaRepository<CommissionMonthlyRollup, CommissionMonthlyRollup.Key> {
+
+    List<CommissionMonthlyRollup> findByUserIdAndPeriodMonthBetweenOrderByPeriodMonth(
+            UUID userId, LocalDate from, LocalDate to);
+}
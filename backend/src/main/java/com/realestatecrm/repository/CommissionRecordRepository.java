@@ -3,7 +3,15 @@ package com.realestatecrm.repository;
 import com.realestatecrm.entity.CommissionRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 public interface CommissionRecordRepository extends JpaRepository<CommissionRecord, UUID> {
+
+    /**
+     * Records of one agent issued in [from, to), served by idx_commission_records_user_issued_at.
+     */
+    List<CommissionRecord> findByUserIdAndIssuedAtGreaterThanEqualAndIssuedAtLessThanOrderByIssuedAt(
+            UUID userId, Instant from, Instant to);
 }
@@ -1,9 +1,98 @@
 package com.realestatecrm.repository;
 
 import com.realestatecrm.entity.Lead;
+import com.realestatecrm.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface LeadRepository extends JpaRepository<Lead, UUID> {
+
+    /**
+     * Looks up created_at in lead_keys (V14) first so only the partition holding the lead is
+     * scanned, rather than the primary-key index of every monthly partition.
+     */
+    @Override
+    @Query(value = "SELECT l.* FROM leads l " +
+            "WHERE l.id = :id AND l.created_at = (SELECT k.created_at FROM lead_keys k WHERE k.id = :id)",
+            nativeQuery = true)
+    Optional<Lead> findById(@Param("id") UUID id);
+
+    /**
+     * {@link #findById} with {@code FOR UPDATE}, so concurrent status changes of the same lead
+     * are applied one after the other.
+     */
+    @Query(value = "SELECT l.* FROM leads l " +
+            "WHERE l.id = :id AND l.created_at = (SELECT k.created_at FROM lead_keys k WHERE k.id = :id) " +
+            "FOR UPDATE OF l", nativeQuery = true)
+    Optional<Lead> lockById(@Param("id") UUID id);
+
+    @Override
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM lead_keys k WHERE k.id = :id)", nativeQuery = true)
+    boolean existsById(@Param("id") UUID id);
+
+    List<Lead> findByStatusNotIn(Collection<Lead.Status> statuses);
+
+    /**
+     * Reassigns the given leads in a single UPDATE, returning the number of rows changed.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Lead l set l.assignedTo = :assignee, l.updatedAt = :now where l.id in :ids")
+    int reassignByIds(@Param("ids") Collection<UUID> ids,
+                      @Param("assignee") User assignee,
+                      @Param("now") Instant now);
+
+    /**
+     * Moves every lead held by {@code fromUserId} whose status is not in {@code excluded} to the assignee.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Lead l set l.assignedTo = :assignee, l.updatedAt = :now " +
+           "where l.assignedTo.id = :fromUserId and l.status not in :excluded")
+    int reassignFromUser(@Param("fromUserId") UUID fromUserId,
+                         @Param("excluded") Collection<Lead.Status> excluded,
+                         @Param("assignee") User assignee,
+                         @Param("now") Instant now);
+
+    /**
+     * Case-insensitive substring match over name, email and phone, closest matches first.
+     * Served by the pg_trgm GIN indexes from V2__lead_search_trgm.sql.
+     */
+    @Query(value = "SELECT l.* FROM leads l " +
+            "WHERE (l.first_name ILIKE :pattern OR l.last_name ILIKE :pattern " +
+            "   OR l.email ILIKE :pattern OR l.phone ILIKE :pattern) " +
+            "  AND (:includeClosed OR l.status NOT IN ('CLOSED_WON', 'CLOSED_LOST')) " +
+            "ORDER BY GREATEST(similarity(l.first_name, :q), similarity(l.last_name, :q), " +
+            "                  similarity(l.email, :q), similarity(l.phone, :q)) DESC, l.created_at DESC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Lead> searchSubstring(@Param("q") String q, @Param("pattern") String pattern,
+                               @Param("includeClosed") boolean includeClosed, @Param("limit") int limit);
+
+    /**
+     * Trigram similarity match (typos, transposed letters) over name and email, best matches first.
+     * Kept separate from the substring query so each can use its own bitmap index plan.
+     */
+    @Query(value = "SELECT l.* FROM leads l " +
+            "WHERE (l.first_name % :q OR l.last_name % :q OR l.email % :q) " +
+            "  AND (:includeClosed OR l.status NOT IN ('CLOSED_WON', 'CLOSED_LOST')) " +
+            "ORDER BY GREATEST(similarity(l.first_name, :q), similarity(l.last_name, :q), " +
+            "                  similarity(l.email, :q)) DESC, l.created_at DESC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Lead> searchFuzzy(@Param("q") String q, @Param("includeClosed") boolean includeClosed, @Param("limit") int limit);
+
+    /**
+     * Locks the oldest unassigned open lead, skipping rows other transactions have already locked,
+     * so concurrent claimers never wait on each other or receive the same lead.
+     */
+    @Query(value = "SELECT l.* FROM leads l " +
+            "WHERE l.assigned_to IS NULL AND l.status NOT IN ('CLOSED_WON', 'CLOSED_LOST') " +
+            "ORDER BY l.created_at " +
+            "LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Lead> lockNextUnassigned();
 }
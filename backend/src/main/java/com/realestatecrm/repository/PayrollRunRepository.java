@@ -0,0 +1,11 @@
+package com.realestatecrm.repository;
+
+import com.realestatecrm.entity.PayrollRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PayrollRunRepository extends JpaRepository<PayrollRun, UUID> {
+    List<PayrollRun> findTop50ByOrderByStartedAtDesc();
+}
@@ -0,0 +1,240 @@
+package com.realestatecrm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestatecrm.dto.ChangeFeedDtos;
+import com.realestatecrm.exception.CursorExpiredException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Change feed over the {@code change_events} outbox (V11). Writers call {@code record*} inside
+ * their own transaction, so an event exists exactly when its change committed. Readers page by
+ * a {@code <txid>-<seq>} cursor and only see events from transactions older than every one still
+ * running, which is what makes the cursor safe to resume from. Old events are compacted to the
+ * latest per entity and eventually expired; a cursor older than what was expired gets
+ * {@link CursorExpiredException} and must resync from the full collections.
+ */
+@Service
+public class ChangeFeedService {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    public enum EntityType { SITE, BUILDING, UNIT, OWNER, LEAD }
+
+    public enum Op { CREATED, UPDATED, DELETED }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO change_events (entity_type, entity_id, op, payload) VALUES (?, ?, ?, ?::jsonb)";
+
+    // Same shape as LeadDtos.LeadResponse, built in the database for set-based lead writes
+    private static final String LEAD_PAYLOAD =
+            "jsonb_build_object('id', l.id, 'firstName', l.first_name, 'lastName', l.last_name, " +
+            "'email', l.email, 'phone', l.phone, 'source', l.source, 'status', l.status, 'assignedTo', l.assigned_to)";
+
+    // The snapshot's xmin is read in the same statement as the page, so the next cursor never
+    // runs ahead of what this page could see
+    private static final String PAGE_SQL =
+            "WITH snap AS (SELECT pg_snapshot_xmin(pg_current_snapshot()) AS xmin) " +
+            "SELECT snap.xmin::text AS xmin, e.seq, e.txid::text AS txid, e.entity_type, e.entity_id, e.op, " +
+            "       e.payload::text AS payload, e.created_at " +
+            "FROM snap LEFT JOIN LATERAL ( " +
+            "  SELECT * FROM change_events " +
+            "  WHERE (txid, seq) > (?::xid8, ?) AND txid < snap.xmin " +
+            "  ORDER BY txid, seq LIMIT ? " +
+            ") e ON TRUE " +
+            "ORDER BY e.txid, e.seq";
+
+    private static final String EXPIRE_SQL =
+            "WITH gone AS ( " +
+            "  DELETE FROM change_events WHERE created_at < ? RETURNING txid, seq " +
+            "), last AS ( " +
+            "  SELECT txid, seq FROM gone ORDER BY txid DESC, seq DESC LIMIT 1 " +
+            "), moved AS ( " +
+            "  UPDATE change_feed_horizon h SET txid = last.txid, seq = last.seq, updated_at = now() " +
+            "  FROM last WHERE (last.txid, last.seq) > (h.txid, h.seq) " +
+            "  RETURNING 1 " +
+            ") " +
+            "SELECT count(*) FROM gone";
+
+    // Drops events superseded by a later event for the same entity; the latest one (including
+    // a DELETED) is always kept, so a lagging client still converges on the final state
+    private static final String COMPACT_SQL =
+            "DELETE FROM change_events e " +
+            "WHERE e.created_at < ? AND EXISTS ( " +
+            "  SELECT 1 FROM change_events n " +
+            "  WHERE n.entity_type = e.entity_type AND n.entity_id = e.entity_id AND (n.txid, n.seq) > (e.txid, e.seq))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Duration compactAfter;
+    private final int maxPageSize;
+
+    public ChangeFeedService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                             @Value("${changes.retention-hours:168}") int retentionHours,
+                             @Value("${changes.compact-after-minutes:60}") int compactAfterMinutes,
+                             @Value("${changes.max-page-size:1000}") int maxPageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.retention = Duration.ofHours(retentionHours);
+        this.compactAfter = Duration.ofMinutes(compactAfterMinutes);
+        this.maxPageSize = maxPageSize;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    // --- Writing ---
+
+    /**
+     * Records one change; {@code payload} is serialised as-is and should be the entity's response DTO.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(EntityType type, Op op, UUID id, Object payload) {
+        String json;
+        try {
+            json = payload != null ? objectMapper.writeValueAsString(payload) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise change payload for " + type + " " + id, e);
+        }
+        jdbcTemplate.update(INSERT_SQL, type.name(), id, op.name(), json);
+    }
+
+    /**
+     * Records {@code op} for every lead matching {@code where} (over {@code leads l}) in one statement,
+     * with the payload read from the rows as they are now.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int recordLeads(Op op, String where, Object... args) {
+        Object[] params = new Object[args.length + 1];
+        params[0] = op.name();
+        System.arraycopy(args, 0, params, 1, args.length);
+        return jdbcTemplate.update(
+                "INSERT INTO change_events (entity_type, entity_id, op, payload) " +
+                "SELECT 'LEAD', l.id, ?, " + LEAD_PAYLOAD + " FROM leads l WHERE " + where, params);
+    }
+
+    /**
+     * Records a DELETED event for every id returned by {@code idQuery}; used for rows removed by a
+     * cascade, before the parent is deleted.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int recordDeleted(EntityType type, String idQuery, Object... args) {
+        Object[] params = new Object[args.length + 1];
+        params[0] = type.name();
+        System.arraycopy(args, 0, params, 1, args.length);
+        return jdbcTemplate.update(
+                "INSERT INTO change_events (entity_type, entity_id, op) " +
+                "SELECT ?, x.id, 'DELETED' FROM (" + idQuery + ") x", params);
+    }
+
+    // --- Reading ---
+
+    /**
+     * Returns the next page of changes after {@code since}, or no changes and the current head
+     * when {@code since} is null (take the head before the initial full fetch).
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedDtos.ChangesResponse changes(String since, int limit) {
+        ChangeFeedDtos.ChangesResponse response = new ChangeFeedDtos.ChangesResponse();
+        response.changes = new ArrayList<>();
+        if (since == null) {
+            String xmin = jdbcTemplate.queryForObject("SELECT pg_snapshot_xmin(pg_current_snapshot())::text", String.class);
+            response.nextCursor = xmin + "-0";
+            return response;
+        }
+
+        String[] cursor = parseCursor(since);
+        Boolean expired = jdbcTemplate.queryForObject(
+                "SELECT (?::xid8, ?) < (txid, seq) FROM change_feed_horizon WHERE id = 1",
+                Boolean.class, cursor[0], Long.parseLong(cursor[1]));
+        if (Boolean.TRUE.equals(expired)) {
+            throw new CursorExpiredException("Cursor " + since + " is older than the retained change history; resync and take a new cursor");
+        }
+
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        String[] xmin = new String[1];
+        jdbcTemplate.query(PAGE_SQL, rs -> {
+            xmin[0] = rs.getString("xmin");
+            if (rs.getString("txid") == null) return;
+            ChangeFeedDtos.ChangeEvent e = new ChangeFeedDtos.ChangeEvent();
+            e.cursor = rs.getString("txid") + "-" + rs.getLong("seq");
+            e.entityType = rs.getString("entity_type");
+            e.entityId = rs.getObject("entity_id", UUID.class);
+            e.op = rs.getString("op");
+            e.payload = rs.getString("payload");
+            e.changedAt = rs.getTimestamp("created_at").toInstant().toString();
+            response.changes.add(e);
+        }, cursor[0], Long.parseLong(cursor[1]), size);
+
+        response.hasMore = response.changes.size() == size;
+        if (!response.changes.isEmpty()) {
+            response.nextCursor = response.changes.get(response.changes.size() - 1).cursor;
+        } else {
+            response.nextCursor = since;
+        }
+        // A short page has drained everything below xmin, so later reads can start there
+        if (!response.hasMore && xmin[0] != null && Long.parseUnsignedLong(xmin[0]) > Long.parseUnsignedLong(cursor[0])) {
+            response.nextCursor = xmin[0] + "-0";
+        }
+        return response;
+    }
+
+    private static String[] parseCursor(String cursor) {
+        String[] parts = cursor.split("-", -1);
+        try {
+            if (parts.length != 2) throw new NumberFormatException();
+            Long.parseUnsignedLong(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    // --- Retention ---
+
+    @Scheduled(cron = "${changes.maintenance-cron:0 */10 * * * *}")
+    public void scheduledMaintenance() {
+        maintain();
+    }
+
+    /**
+     * Compacts superseded events older than {@code changes.compact-after-minutes} and expires
+     * everything older than {@code changes.retention-hours}, moving the horizon forward.
+     */
+    public ChangeFeedDtos.MaintenanceResult maintain() {
+        long started = System.nanoTime();
+        Instant now = Instant.now();
+        ChangeFeedDtos.MaintenanceResult result = new ChangeFeedDtos.MaintenanceResult();
+        Long expired = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+                EXPIRE_SQL, Long.class, Timestamp.from(now.minus(retention))));
+        Integer compacted = transactionTemplate.execute(status -> jdbcTemplate.update(
+                COMPACT_SQL, Timestamp.from(now.minus(compactAfter))));
+        result.expired = expired != null ? expired : 0;
+        result.compacted = compacted != null ? compacted : 0;
+        result.horizon = jdbcTemplate.queryForObject(
+                "SELECT txid::text || '-' || seq FROM change_feed_horizon WHERE id = 1", String.class);
+        result.durationMs = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Change feed maintenance: expired={}, compacted={}, horizon={}, {} ms",
+                result.expired, result.compacted, result.horizon, result.durationMs);
+        return result;
+    }
+}
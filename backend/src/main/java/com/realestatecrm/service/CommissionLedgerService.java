@@ -0,0 +1,132 @@
+package com.realestatecrm.service;
+
+import com.realestatecrm.dto.CommissionDtos;
+import com.realestatecrm.entity.CommissionMonthlyRollup;
+import com.realestatecrm.repository.CommissionMonthlyRollupRepository;
+import com.realestatecrm.repository.CommissionRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Commission ledger served from the monthly rollups, with a drill-down into raw records and a
+ * reconciliation that checks the rollups against {@code commission_records}.
+ */
+@Service
+public class CommissionLedgerService {
+    private static final Logger logger = LoggerFactory.getLogger(CommissionLedgerService.class);
+
+    private static final String RAW_TOTALS =
+            "SELECT user_id, date_trunc('month', issued_at AT TIME ZONE 'UTC')::date AS period_month, " +
+            "       count(*) AS record_count, coalesce(sum(amount), 0) AS total_amount " +
+            "FROM commission_records WHERE user_id IS NOT NULL GROUP BY 1, 2";
+
+    private static final String MISMATCH_SQL =
+            "SELECT coalesce(r.user_id, raw.user_id) AS user_id, coalesce(r.period_month, raw.period_month) AS period_month, " +
+            "       coalesce(r.record_count, 0) AS rollup_count, coalesce(r.total_amount, 0) AS rollup_amount, " +
+            "       coalesce(raw.record_count, 0) AS record_count, coalesce(raw.total_amount, 0) AS record_amount " +
+            "FROM commission_monthly_rollups r FULL OUTER JOIN (" + RAW_TOTALS + ") raw " +
+            "  ON raw.user_id = r.user_id AND raw.period_month = r.period_month " +
+            "WHERE coalesce(r.record_count, 0) <> coalesce(raw.record_count, 0) " +
+            "   OR coalesce(r.total_amount, 0) <> coalesce(raw.total_amount, 0) " +
+            "ORDER BY 2, 1";
+
+    private final CommissionMonthlyRollupRepository rollupRepo;
+    private final CommissionRecordRepository recordRepo;
+    private final JdbcTemplate jdbcTemplate;
+
+    public CommissionLedgerService(CommissionMonthlyRollupRepository rollupRepo,
+                                   CommissionRecordRepository recordRepo,
+                                   JdbcTemplate jdbcTemplate) {
+        this.rollupRepo = rollupRepo;
+        this.recordRepo = recordRepo;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public CommissionDtos.LedgerResponse getLedger(UUID userId, int year) {
+        List<CommissionMonthlyRollup> months = rollupRepo.findByUserIdAndPeriodMonthBetweenOrderByPeriodMonth(
+                userId, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 1));
+
+        CommissionDtos.LedgerResponse response = new CommissionDtos.LedgerResponse();
+        response.userId = userId;
+        response.year = year;
+        for (CommissionMonthlyRollup month : months) {
+            response.months.add(CommissionDtos.LedgerMonth.fromEntity(month));
+            response.recordCount += month.getRecordCount();
+            response.totalAmount = response.totalAmount.add(month.getTotalAmount());
+        }
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CommissionDtos.CommissionRecordResponse> getMonthRecords(UUID userId, YearMonth month) {
+        return recordRepo.findByUserIdAndIssuedAtGreaterThanEqualAndIssuedAtLessThanOrderByIssuedAt(
+                        userId,
+                        month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                        month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+                .stream()
+                .map(CommissionDtos.CommissionRecordResponse::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Compares every rollup with the totals recomputed from raw records. With {@code repair} the
+     * mismatching months are overwritten from the raw records in the same transaction.
+     */
+    @Transactional
+    public CommissionDtos.ReconcileResult reconcile(boolean repair) {
+        CommissionDtos.ReconcileResult result = new CommissionDtos.ReconcileResult();
+        result.mismatches = jdbcTemplate.query(MISMATCH_SQL, (rs, i) -> {
+            CommissionDtos.ReconcileMismatch m = new CommissionDtos.ReconcileMismatch();
+            m.userId = rs.getObject("user_id", UUID.class);
+            m.month = rs.getDate("period_month").toLocalDate().toString().substring(0, 7);
+            m.rollupCount = rs.getLong("rollup_count");
+            m.rollupAmount = rs.getBigDecimal("rollup_amount");
+            m.recordCount = rs.getLong("record_count");
+            m.recordAmount = rs.getBigDecimal("record_amount");
+            return m;
+        });
+
+        if (repair) {
+            for (CommissionDtos.ReconcileMismatch m : result.mismatches) {
+                LocalDate periodMonth = YearMonth.parse(m.month).atDay(1);
+                if (m.recordCount == 0 && BigDecimal.ZERO.compareTo(m.recordAmount) == 0) {
+                    jdbcTemplate.update("DELETE FROM commission_monthly_rollups WHERE user_id = ? AND period_month = ?",
+                            m.userId, periodMonth);
+                } else {
+                    jdbcTemplate.update(
+                            "INSERT INTO commission_monthly_rollups (user_id, period_month, record_count, total_amount) " +
+                            "VALUES (?, ?, ?, ?) ON CONFLICT (user_id, period_month) DO UPDATE " +
+                            "SET record_count = EXCLUDED.record_count, total_amount = EXCLUDED.total_amount, updated_at = now()",
+                            m.userId, periodMonth, m.recordCount, m.recordAmount);
+                }
+            }
+            result.repaired = !result.mismatches.isEmpty();
+        }
+        return result;
+    }
+
+    @Scheduled(cron = "${commissions.reconcile-cron:0 30 2 * * *}")
+    public void scheduledReconcile() {
+        CommissionDtos.ReconcileResult result = reconcile(false);
+        if (result.mismatches.isEmpty()) {
+            logger.info("Commission rollups reconciled: no mismatches");
+        } else {
+            result.mismatches.forEach(m -> logger.warn(
+                    "Commission rollup mismatch user={} month={}: rollup {} / {}, records {} / {}",
+                    m.userId, m.month, m.rollupCount, m.rollupAmount, m.recordCount, m.recordAmount));
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.realestatecrm.service;
+
+import com.realestatecrm.entity.BuildingUnit;
+import com.realestatecrm.entity.User;
+import com.realestatecrm.entity.UuidV7Generator;
+import com.realestatecrm.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns closed sales into {@code commission_records} and keeps {@code commission_monthly_rollups}
+ * in step with them. Closing a deal publishes a {@link SaleClosedEvent}, which is written to
+ * {@code commission_outbox} inside the transaction that closed it. A scheduled flush turns due
+ * outbox rows into commissions in batches and deletes them in the same transaction, so the request
+ * that closed the deal never pays for it and a crash loses nothing. Sales that fail stay in the
+ * outbox and are retried with exponential backoff.
+ */
+@Service
+public class CommissionService {
+    private static final Logger logger = LoggerFactory.getLogger(CommissionService.class);
+
+    private static final String OUTBOX_INSERT_SQL =
+            "INSERT INTO commission_outbox (sale_id, user_id, unit_id, lead_id, unit_number, price, closed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (sale_id) DO NOTHING";
+
+    private static final String OUTBOX_DUE_SQL =
+            "SELECT sale_id FROM commission_outbox WHERE next_attempt_at <= now() ORDER BY next_attempt_at LIMIT ?";
+
+    // Rows another flusher is already working on are skipped
+    private static final String OUTBOX_CLAIM_SQL =
+            "SELECT sale_id, user_id, unit_id, lead_id, unit_number, price, closed_at FROM commission_outbox " +
+            "WHERE sale_id = ANY (?) FOR UPDATE SKIP LOCKED";
+
+    // Backoff doubles per attempt, capped at an hour
+    private static final String OUTBOX_FAILED_SQL =
+            "UPDATE commission_outbox SET attempts = attempts + 1, last_error = ?, " +
+            "next_attempt_at = now() + least(? * power(2, attempts), 3600000) * interval '1 millisecond' " +
+            "WHERE sale_id = ?";
+
+    // Replays of the same sale hit uq_commission_records_sale and are skipped
+    private static final String INSERT_SQL =
+            "INSERT INTO commission_records (id, sale_id, user_id, unit_id, lead_id, sale_amount, rate, amount, details, issued_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (sale_id) WHERE sale_id IS NOT NULL DO NOTHING";
+
+    // Folds just-inserted records into the monthly rollups and returns them; ids skipped by
+    // ON CONFLICT simply don't match
+    private static final String ROLLUP_SQL =
+            "WITH inserted AS ( " +
+            "  SELECT sale_id, user_id, amount, issued_at FROM commission_records WHERE id = ANY (?) " +
+            "), rolled AS ( " +
+            "  INSERT INTO commission_monthly_rollups AS r (user_id, period_month, record_count, total_amount) " +
+            "  SELECT user_id, date_trunc('month', issued_at AT TIME ZONE 'UTC')::date, count(*), coalesce(sum(amount), 0) " +
+            "  FROM inserted GROUP BY 1, 2 " +
+            "  ON CONFLICT (user_id, period_month) DO UPDATE " +
+            "  SET record_count = r.record_count + EXCLUDED.record_count, " +
+            "      total_amount = r.total_amount + EXCLUDED.total_amount, updated_at = now() " +
+            "  RETURNING 1 " +
+            ") " +
+            "SELECT sale_id, user_id, amount, issued_at FROM inserted";
+
+    // Rewrites changed amounts and applies the difference to the affected rollups in one statement
+    private static final String RECOMPUTE_SQL =
+            "WITH changed AS ( " +
+            "  UPDATE commission_records c " +
+            "  SET rate = u.commission_rate, amount = round(c.sale_amount * u.commission_rate, 2) " +
+            "  FROM users u, (SELECT id, amount AS old_amount FROM commission_records WHERE id = ANY (?)) o " +
+            "  WHERE c.id = o.id AND c.user_id = u.id " +
+            "    AND c.sale_amount IS NOT NULL AND u.commission_rate IS NOT NULL " +
+            "    AND c.amount IS DISTINCT FROM round(c.sale_amount * u.commission_rate, 2) " +
+            "  RETURNING c.user_id, c.issued_at, c.amount - coalesce(o.old_amount, 0) AS delta " +
+            "), deltas AS ( " +
+            "  SELECT user_id, date_trunc('month', issued_at AT TIME ZONE 'UTC')::date AS period_month, sum(delta) AS delta " +
+            "  FROM changed GROUP BY 1, 2 " +
+            "), applied AS ( " +
+            "  UPDATE commission_monthly_rollups r SET total_amount = r.total_amount + d.delta, updated_at = now() " +
+            "  FROM deltas d WHERE r.user_id = d.user_id AND r.period_month = d.period_month " +
+            "  RETURNING 1 " +
+            ") " +
+            "SELECT count(*) FROM changed";
+
+    private final UserRepository userRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long retryBackoffMs;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CommissionService(UserRepository userRepo, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${commissions.batch-size:500}") int batchSize,
+                             @Value("${commissions.retry-backoff-ms:5000}") long retryBackoffMs) {
+        this.userRepo = userRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retryBackoffMs = retryBackoffMs;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * A deal closed for {@code userId}: a unit was sold/leased, optionally through a lead.
+     * {@code saleId} identifies this one sale; at most one commission is recorded per sale id, so
+     * every path that closes the same sale derives the same id from the unit (see {@link #saleIdOf}).
+     */
+    public static class SaleClosedEvent {
+        public final UUID saleId;
+        public final UUID userId;
+        public final UUID unitId;
+        public final UUID leadId;
+        public final String unitNumber;
+        public final Double price;
+        public final Instant closedAt = Instant.now();
+
+        public SaleClosedEvent(UUID userId, BuildingUnit unit, UUID leadId) {
+            this.saleId = saleIdOf(unit);
+            this.userId = userId;
+            this.unitId = unit.getId();
+            this.leadId = leadId;
+            this.unitNumber = unit.getUnitNumber();
+            this.price = unit.getPrice();
+        }
+
+        /**
+         * Name-based id of the unit's current sale while it is SOLD or LEASED, otherwise of the
+         * sale that will close it. A lead closed on a unit and the unit's own move to SOLD get the
+         * same id in either order, while a resale is a new sale number (V15). The caller must hold
+         * the unit's row lock.
+         */
+        static UUID saleIdOf(BuildingUnit unit) {
+            int sale = unit.getStatus().isClosedSale() ? unit.getSaleCount() : unit.getSaleCount() + 1;
+            return UUID.nameUUIDFromBytes(("unit-sale:" + unit.getId() + ":" + sale).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Published after a flush commits, with the commissions that were actually inserted.
+     */
+    public static class CommissionsRecordedEvent {
+        public final List<RecordedCommission> commissions;
+
+        public CommissionsRecordedEvent(List<RecordedCommission> commissions) {
+            this.commissions = commissions;
+        }
+    }
+
+    public static class RecordedCommission {
+        public final UUID saleId;
+        public final UUID userId;
+        public final BigDecimal amount;
+        public final Instant issuedAt;
+
+        public RecordedCommission(UUID saleId, UUID userId, BigDecimal amount, Instant issuedAt) {
+            this.saleId = saleId;
+            this.userId = userId;
+            this.amount = amount;
+            this.issuedAt = issuedAt;
+        }
+    }
+
+    /**
+     * Published after a recompute changed at least one amount.
+     */
+    public static class CommissionsRecomputedEvent {
+        public final long updated;
+
+        public CommissionsRecomputedEvent(long updated) {
+            this.updated = updated;
+        }
+    }
+
+    public static class RecomputeResult {
+        public long scanned;
+        public long updated;
+    }
+
+    // Runs inside the transaction that closed the sale, so the sale is stored if and only if it commits
+    @EventListener
+    public void onSaleClosed(SaleClosedEvent event) {
+        jdbcTemplate.update(OUTBOX_INSERT_SQL, event.saleId, event.userId, event.unitId, event.leadId, event.unitNumber,
+                event.price, Timestamp.from(event.closedAt));
+    }
+
+    @Scheduled(fixedDelayString = "${commissions.flush-interval-ms:2000}")
+    public void flush() {
+        while (true) {
+            List<UUID> due = jdbcTemplate.queryForList(OUTBOX_DUE_SQL, UUID.class, batchSize);
+            if (due.isEmpty()) return;
+            int claimed;
+            try {
+                claimed = record(due);
+            } catch (Exception e) {
+                // Find the sale(s) that break the batch; the rest are recorded now
+                logger.warn("Failed to record commissions for {} sale(s), retrying them one at a time", due.size(), e);
+                claimed = 0;
+                for (UUID saleId : due) {
+                    try {
+                        claimed += record(List.of(saleId));
+                    } catch (Exception single) {
+                        logger.error("Failed to record the commission for sale {}; it stays queued for a retry", saleId, single);
+                        jdbcTemplate.update(OUTBOX_FAILED_SQL, String.valueOf(single), retryBackoffMs, saleId);
+                    }
+                }
+            }
+            // A short or fully locked batch means nothing else is due right now
+            if (claimed == 0 || due.size() < batchSize) return;
+        }
+    }
+
+    // Records the given outbox sales and deletes them in one transaction; returns how many were claimed
+    private int record(List<UUID> saleIds) {
+        List<PendingSale> batch = new ArrayList<>();
+        List<RecordedCommission> recorded = transactionTemplate.execute(status -> {
+            batch.addAll(jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(OUTBOX_CLAIM_SQL);
+                ps.setArray(1, con.createArrayOf("uuid", saleIds.toArray()));
+                return ps;
+            }, (rs, i) -> new PendingSale(rs.getObject("sale_id", UUID.class), rs.getObject("user_id", UUID.class),
+                    rs.getObject("unit_id", UUID.class), rs.getObject("lead_id", UUID.class), rs.getString("unit_number"),
+                    rs.getObject("price", Double.class), rs.getTimestamp("closed_at").toInstant())));
+            if (batch.isEmpty()) return List.of();
+            List<RecordedCommission> inserted = writeBatch(batch);
+            jdbcTemplate.update(con -> {
+                var ps = con.prepareStatement("DELETE FROM commission_outbox WHERE sale_id = ANY (?)");
+                ps.setArray(1, con.createArrayOf("uuid", batch.stream().map(PendingSale::saleId).toArray()));
+                return ps;
+            });
+            return inserted;
+        });
+        if (!batch.isEmpty()) {
+            logger.info("Recorded {} commission(s) from {} closed sale(s)", recorded.size(), batch.size());
+        }
+        if (!recorded.isEmpty()) {
+            eventPublisher.publishEvent(new CommissionsRecordedEvent(recorded));
+        }
+        return batch.size();
+    }
+
+    // A commission_outbox row
+    private record PendingSale(UUID saleId, UUID userId, UUID unitId, UUID leadId, String unitNumber, Double price,
+                               Instant closedAt) {}
+
+    // Returns the commissions actually inserted (replayed sales are dropped by the database)
+    private List<RecordedCommission> writeBatch(List<PendingSale> batch) {
+        Set<UUID> userIds = batch.stream().map(PendingSale::userId).collect(Collectors.toSet());
+        Map<UUID, User> users = userRepo.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (PendingSale e : batch) {
+            User agent = users.get(e.userId());
+            BigDecimal rate = commissionRate(agent);
+            if (rate == null || e.price() == null) {
+                logger.debug("No commission for user {} on unit {}", e.userId(), e.unitId());
+                continue;
+            }
+            BigDecimal sale = BigDecimal.valueOf(e.price());
+            BigDecimal amount = sale.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+            String details = "Unit " + e.unitNumber() + " closed at " + sale.toPlainString() + " x " + rate.toPlainString();
+            rows.add(new Object[] { UuidV7Generator.generate(), e.saleId(), e.userId(), e.unitId(), e.leadId(), sale, rate,
+                    amount, details, Timestamp.from(e.closedAt()) });
+        }
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        UUID[] ids = rows.stream().map(r -> (UUID) r[0]).toArray(UUID[]::new);
+        return jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(ROLLUP_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            return ps;
+        }, (rs, i) -> new RecordedCommission(rs.getObject("sale_id", UUID.class), rs.getObject("user_id", UUID.class),
+                rs.getBigDecimal("amount"), rs.getTimestamp("issued_at").toInstant()));
+    }
+
+    // Only agents paid on commission earn one
+    private static BigDecimal commissionRate(User agent) {
+        if (agent == null || agent.getCommissionRate() == null || agent.getCompensationType() == null) return null;
+        if (agent.getCompensationType() == User.CompensationType.SALARY) return null;
+        return agent.getCommissionRate();
+    }
+
+    /**
+     * Re-derives {@code amount} from the recorded sale amount and each agent's current rate for
+     * records issued in [from, to), adjusting the monthly rollups by the difference. Works through the range in short keyset-paged transactions and
+     * only touches rows whose amount actually changes, so running it twice is a no-op.
+     */
+    public RecomputeResult recompute(Instant from, Instant to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        RecomputeResult result = new RecomputeResult();
+        UUID lastId = new UUID(0L, 0L);
+        while (true) {
+            List<UUID> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM commission_records WHERE issued_at >= ? AND issued_at < ? AND id > ? ORDER BY id LIMIT ?",
+                    UUID.class, Timestamp.from(from), Timestamp.from(to), lastId, batchSize);
+            if (ids.isEmpty()) break;
+
+            Long updated = transactionTemplate.execute(status -> jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(RECOMPUTE_SQL);
+                ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+                return ps;
+            }, rs -> rs.next() ? rs.getLong(1) : 0L));
+            result.scanned += ids.size();
+            result.updated += updated != null ? updated : 0;
+            lastId = ids.get(ids.size() - 1);
+        }
+        logger.info("Commission recompute {} - {}: scanned={}, updated={}", from, to, result.scanned, result.updated);
+        if (result.updated > 0) {
+            eventPublisher.publishEvent(new CommissionsRecomputedEvent(result.updated));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,123 @@
+package com.realestatecrm.service;
+
+import com.realestatecrm.dto.LeadDtos;
+import com.realestatecrm.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps {@code leads} (range-partitioned by month of {@code created_at}, see V9) down to the
+ * active pipeline: closed leads untouched for longer than {@code leads.archive.closed-age-days}
+ * are moved into {@code leads_archive} in batches, each batch stored as one compressed jsonb
+ * row. Also creates the monthly partitions ahead of time so new leads never land in the
+ * default partition.
+ */
+@Service
+public class LeadArchiveService {
+    private static final Logger logger = LoggerFactory.getLogger(LeadArchiveService.class);
+
+    // Deletes one batch of old closed leads and writes them to the archive (and the change feed)
+    // in the same statement
+    private static final String ARCHIVE_SQL =
+            "WITH batch AS ( " +
+            "  SELECT id, created_at FROM leads " +
+            "  WHERE status IN ('CLOSED_WON', 'CLOSED_LOST') AND updated_at < ? " +
+            "  ORDER BY updated_at LIMIT ? FOR UPDATE SKIP LOCKED " +
+            "), moved AS ( " +
+            "  DELETE FROM leads l USING batch b WHERE l.id = b.id AND l.created_at = b.created_at " +
+            "  RETURNING l.* " +
+            "), feed AS ( " +
+            "  INSERT INTO change_events (entity_type, entity_id, op) SELECT 'LEAD', id, 'DELETED' FROM moved " +
+            ") " +
+            "INSERT INTO leads_archive (lead_count, oldest_created_at, newest_created_at, lead_ids, leads) " +
+            "SELECT count(*), min(created_at), max(created_at), array_agg(id), jsonb_agg(to_jsonb(moved)) " +
+            "FROM moved HAVING count(*) > 0 " +
+            "RETURNING lead_count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration closedAge;
+    private final int batchSize;
+    private final int partitionsAhead;
+
+    public LeadArchiveService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              @Value("${leads.archive.closed-age-days:180}") int closedAgeDays,
+                              @Value("${leads.archive.batch-size:1000}") int batchSize,
+                              @Value("${leads.archive.partitions-ahead:3}") int partitionsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.closedAge = Duration.ofDays(closedAgeDays);
+        this.batchSize = batchSize;
+        this.partitionsAhead = partitionsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitionsOnStartup() {
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${leads.archive.cron:0 15 3 * * *}")
+    public void scheduledRun() {
+        ensurePartitions();
+        archive();
+    }
+
+    public int ensurePartitions() {
+        Integer created = jdbcTemplate.queryForObject(
+                "SELECT create_lead_partitions(now(), ?)", Integer.class, partitionsAhead);
+        if (created != null && created > 0) {
+            logger.info("Created {} lead partition(s)", created);
+        }
+        return created != null ? created : 0;
+    }
+
+    /**
+     * Archives every eligible lead, one short transaction per batch so the job never holds many
+     * row locks at once and can be stopped or rerun at any point.
+     */
+    public LeadDtos.ArchiveResult archive() {
+        long started = System.nanoTime();
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(closedAge));
+        LeadDtos.ArchiveResult result = new LeadDtos.ArchiveResult();
+        result.cutoff = cutoff.toInstant().toString();
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> jdbcTemplate.query(ARCHIVE_SQL,
+                    rs -> rs.next() ? rs.getInt(1) : 0, cutoff, batchSize));
+            if (moved == null || moved == 0) break;
+            result.archived += moved;
+            result.batches++;
+            if (moved < batchSize) break;
+        }
+        result.durationMs = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Archived {} closed lead(s) older than {} in {} batch(es), {} ms",
+                result.archived, result.cutoff, result.batches, result.durationMs);
+        return result;
+    }
+
+    /**
+     * Returns the archived lead as JSON, in the same column-named form it had in {@code leads}.
+     */
+    public String getArchivedLead(UUID leadId) {
+        List<String> found = jdbcTemplate.queryForList(
+                "SELECT e::text FROM leads_archive a, jsonb_array_elements(a.leads) e " +
+                "WHERE a.lead_ids @> ARRAY[?::uuid] AND e->>'id' = ?",
+                String.class, leadId.toString(), leadId.toString());
+        if (found.isEmpty()) {
+            throw new ResourceNotFoundException("Archived lead not found with ID: " + leadId);
+        }
+        return found.get(0);
+    }
+}
@@ -0,0 +1,347 @@
+package com.realestatecrm.service;
+
+import com.realestatecrm.dto.LeadDtos;
+import com.realestatecrm.entity.Lead;
+import com.realestatecrm.entity.UuidV7Generator;
+import com.realestatecrm.exception.ResourceNotFoundException;
+import com.realestatecrm.util.CsvReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk lead import from CSV. The upload is spooled to a temp file and then processed by two
+ * threads per job: a parser that streams, validates and normalises rows into fixed-size batches,
+ * and a writer that inserts each batch with one JDBC batch statement. A small bounded queue
+ * between them keeps memory flat regardless of file size.
+ */
+@Service
+public class LeadImportService {
+    private static final Logger logger = LoggerFactory.getLogger(LeadImportService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO leads (id, first_name, last_name, email, phone, source, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+    private static final List<String[]> END_OF_INPUT = new ArrayList<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeFeedService changeFeed;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService parsers;
+    private final ExecutorService writers;
+
+    public LeadImportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             ChangeFeedService changeFeed, MeterRegistry meterRegistry,
+                             @Value("${leads.import.batch-size:1000}") int batchSize,
+                             @Value("${leads.import.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.changeFeed = changeFeed;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        // Separate pools so a queued job can never take the thread its running peers need to write
+        this.parsers = Executors.newFixedThreadPool(maxConcurrentJobs, namedThreads("lead-import-parse-"));
+        this.writers = Executors.newFixedThreadPool(maxConcurrentJobs, namedThreads("lead-import-write-"));
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsers.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    public ImportJob startImport(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Import file is empty");
+        }
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload.csv";
+        if (!name.toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            throw new IllegalArgumentException("Only CSV files are supported");
+        }
+        evictFinishedJobs();
+
+        ImportJob job = new ImportJob(name);
+        // The multipart part is discarded when the request ends, so keep our own copy
+        job.source = Files.createTempFile("lead-import-" + job.id, ".csv");
+        file.transferTo(job.source);
+        job.errorReport = Files.createTempFile("lead-import-" + job.id, "-errors.csv");
+        jobs.put(job.id, job);
+
+        parsers.submit(() -> run(job));
+        logger.info("Queued lead import {} for file {} ({} bytes)", job.id, name, file.getSize());
+        return job;
+    }
+
+    public ImportJob getJob(UUID jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found with ID: " + jobId);
+        }
+        return job;
+    }
+
+    public Path getErrorReport(UUID jobId) {
+        ImportJob job = getJob(jobId);
+        if (!job.isFinished()) {
+            throw new IllegalArgumentException("Import job " + jobId + " is still running");
+        }
+        return job.errorReport;
+    }
+
+    private void run(ImportJob job) {
+        job.status = ImportJob.Status.RUNNING;
+        job.startedAt = Instant.now();
+        BlockingQueue<List<String[]>> batches = new ArrayBlockingQueue<>(4);
+        Future<?> writer = writers.submit(() -> writeBatches(job, batches));
+
+        try (CsvReader reader = new CsvReader(new InputStreamReader(Files.newInputStream(job.source), StandardCharsets.UTF_8));
+             BufferedWriter errors = Files.newBufferedWriter(job.errorReport, StandardCharsets.UTF_8)) {
+            errors.write("line,reason\n");
+
+            Map<String, Integer> columns = readHeader(reader);
+            List<String[]> batch = new ArrayList<>(batchSize);
+            List<String> record;
+            while ((record = reader.next()) != null && job.failure == null) {
+                if (isBlank(record)) continue;
+                job.rowsRead.incrementAndGet();
+
+                String[] row = new String[6];
+                String problem = normalise(record, columns, row);
+                if (problem != null) {
+                    job.rowsRejected.incrementAndGet();
+                    errors.write(reader.getRecordLine() + "," + csvEscape(problem) + "\n");
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    batches.put(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) batches.put(batch);
+            batches.put(END_OF_INPUT);
+            writer.get();
+
+            errors.flush();
+            job.status = job.failure == null ? ImportJob.Status.COMPLETED : ImportJob.Status.FAILED;
+        } catch (Exception e) {
+            writer.cancel(true);
+            job.failure = e.getMessage();
+            job.status = ImportJob.Status.FAILED;
+            logger.error("Lead import {} failed", job.id, e);
+        } finally {
+            job.finishedAt = Instant.now();
+            deleteQuietly(job.source);
+            // Runs on the parser thread, out of sight of ServiceMetricsAspect
+            meterRegistry.timer("leads.import.jobs", "status", job.status.name())
+                    .record(Duration.between(job.startedAt, job.finishedAt));
+            meterRegistry.counter("leads.import.rows", "outcome", "imported").increment(job.rowsImported.get());
+            meterRegistry.counter("leads.import.rows", "outcome", "rejected").increment(job.rowsRejected.get());
+            logger.info("Lead import {} {}: read={}, imported={}, rejected={}, {} rows/s",
+                    job.id, job.status, job.rowsRead.get(), job.rowsImported.get(),
+                    job.rowsRejected.get(), Math.round(job.getRowsPerSecond()));
+        }
+    }
+
+    private void writeBatches(ImportJob job, BlockingQueue<List<String[]>> batches) {
+        try {
+            List<String[]> batch;
+            while ((batch = batches.take()) != END_OF_INPUT) {
+                if (job.failure != null) continue; // drain so the parser never blocks
+                try {
+                    UUID[] ids = new UUID[batch.size()];
+                    List<Object[]> rows = new ArrayList<>(batch.size());
+                    for (String[] row : batch) {
+                        Object[] args = new Object[row.length + 1];
+                        args[0] = ids[rows.size()] = UuidV7Generator.generate();
+                        System.arraycopy(row, 0, args, 1, row.length);
+                        rows.add(args);
+                    }
+                    // The batch and its change-feed events commit together
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                        changeFeed.recordLeads(ChangeFeedService.Op.CREATED, "l.id = ANY (?)", (Object) ids);
+                    });
+                    job.rowsImported.addAndGet(batch.size());
+                } catch (Exception e) {
+                    job.failure = "Batch insert failed after " + job.rowsImported.get() + " rows: " + e.getMessage();
+                    logger.error("Lead import {}: batch insert failed after {} rows", job.id, job.rowsImported.get(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<String, Integer> readHeader(CsvReader reader) throws IOException {
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("File has no header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Accept firstName, first_name, "First Name", ...
+            columns.put(header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", ""), i);
+        }
+        if (!columns.containsKey("firstname") && !columns.containsKey("lastname") && !columns.containsKey("email")) {
+            throw new IllegalArgumentException("Header must contain at least one of firstName, lastName, email");
+        }
+        return columns;
+    }
+
+    // Fills row with (first_name, last_name, email, phone, source, status); returns an error or null
+    private String normalise(List<String> record, Map<String, Integer> columns, String[] row) {
+        row[0] = value(record, columns, "firstname");
+        row[1] = value(record, columns, "lastname");
+        row[2] = value(record, columns, "email");
+        row[3] = value(record, columns, "phone");
+        row[4] = value(record, columns, "source");
+        String status = value(record, columns, "status");
+
+        if (row[0] == null && row[1] == null && row[2] == null) {
+            return "Row needs a first name, last name or email";
+        }
+        if (row[2] != null) {
+            row[2] = row[2].toLowerCase(Locale.ROOT);
+            if (!EMAIL.matcher(row[2]).matches()) return "Invalid email: " + row[2];
+        }
+        if (row[3] != null) {
+            row[3] = row[3].replaceAll("[\\s().-]", "");
+        }
+        if (status == null) {
+            row[5] = Lead.Status.NEW.name();
+        } else {
+            try {
+                row[5] = Lead.Status.valueOf(status.toUpperCase(Locale.ROOT)).name();
+            } catch (IllegalArgumentException e) {
+                return "Invalid status: " + status;
+            }
+        }
+        return null;
+    }
+
+    private static String value(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) return null;
+        String v = record.get(index).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private static boolean isBlank(List<String> record) {
+        for (String v : record) {
+            if (!v.isBlank()) return false;
+        }
+        return true;
+    }
+
+    private static String csvEscape(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.isFinished() && job.finishedAt.isBefore(cutoff);
+            if (expired) deleteQuietly(job.errorReport);
+            return expired;
+        });
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            if (path != null) Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    public static class ImportJob {
+        public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+        private final UUID id = UUID.randomUUID();
+        private final String fileName;
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private volatile Status status = Status.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String failure;
+        private Path source;
+        private Path errorReport;
+
+        ImportJob(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public boolean isFinished() {
+            return status == Status.COMPLETED || status == Status.FAILED;
+        }
+
+        public double getRowsPerSecond() {
+            if (startedAt == null) return 0;
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+            return rowsImported.get() * 1000.0 / millis;
+        }
+
+        public LeadDtos.ImportJobResponse toResponse() {
+            LeadDtos.ImportJobResponse response = new LeadDtos.ImportJobResponse();
+            response.jobId = id;
+            response.fileName = fileName;
+            response.status = status.name();
+            response.rowsRead = rowsRead.get();
+            response.rowsImported = rowsImported.get();
+            response.rowsRejected = rowsRejected.get();
+            response.rowsPerSecond = Math.round(getRowsPerSecond());
+            response.startedAt = startedAt != null ? startedAt.toString() : null;
+            response.finishedAt = finishedAt != null ? finishedAt.toString() : null;
+            response.error = failure;
+            return response;
+        }
+    }
+}
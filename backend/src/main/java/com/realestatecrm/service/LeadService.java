@@ -1,53 +1,132 @@
 package com.realestatecrm.service;
 
 import com.realestatecrm.dto.LeadDtos;
+import com.realestatecrm.entity.BuildingUnit;
 import com.realestatecrm.entity.Lead;
 import com.realestatecrm.entity.User;
+import com.realestatecrm.repository.BuildingUnitRepository;
 import com.realestatecrm.repository.LeadRepository;
 import com.realestatecrm.repository.UserRepository;
 import com.realestatecrm.exception.ResourceNotFoundException; // 💡 CRITICAL: Ensure this class exists
+import com.realestatecrm.service.ChangeFeedService.EntityType;
+import com.realestatecrm.service.ChangeFeedService.Op;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.Optional; // Still needed for internal repository use
 
 @Service
 public class LeadService {
+    // Leads in these states are finished and stay with whoever closed them
+    private static final EnumSet<Lead.Status> CLOSED_STATUSES = EnumSet.of(Lead.Status.CLOSED_WON, Lead.Status.CLOSED_LOST);
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final LeadRepository leadRepo;
     private final UserRepository userRepo;
+    private final BuildingUnitRepository unitRepo;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeFeedService changeFeed;
+    private final ProjectionService projections;
 
-    public LeadService(LeadRepository leadRepo, UserRepository userRepo) {
+    public LeadService(LeadRepository leadRepo, UserRepository userRepo, BuildingUnitRepository unitRepo,
+                       MeterRegistry meterRegistry, ApplicationEventPublisher eventPublisher,
+                       ChangeFeedService changeFeed, ProjectionService projections) {
         this.leadRepo = leadRepo;
         this.userRepo = userRepo;
+        this.unitRepo = unitRepo;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.changeFeed = changeFeed;
+        this.projections = projections;
     }
 
+    @Transactional
     public Lead create(Lead l) { 
-        return leadRepo.save(l); 
+        Lead saved = leadRepo.save(l);
+        recordChange(Op.CREATED, saved);
+        return saved;
+    }
+
+    private void recordChange(Op op, Lead lead) {
+        changeFeed.record(EntityType.LEAD, op, lead.getId(), LeadDtos.LeadResponse.fromEntity(lead));
     }
     
-    public List<Lead> list() { 
-        return leadRepo.findAll(); 
+    // Open leads only unless asked for closed ones too, so the list tracks the active pipeline
+    @Transactional(readOnly = true)
+    public List<Lead> list(boolean includeClosed) { 
+        return includeClosed ? leadRepo.findAll() : leadRepo.findByStatusNotIn(CLOSED_STATUSES); 
+    }
+
+    // Sparse fieldsets (?fields=): the same list, selecting only the requested columns
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listFields(String fields, boolean includeClosed) {
+        Specification<Lead> filter = includeClosed ? null
+                : (root, query, cb) -> root.get("status").in(CLOSED_STATUSES).not();
+        return projections.select(Lead.class, LeadDtos.LeadResponse.FIELDS, fields, filter);
     }
     
+    // --- Search ---
+    // Ranked substring/fuzzy lookup so the UI does not have to download every lead
+    @Transactional(readOnly = true)
+    public List<Lead> search(String query, Integer limit, boolean includeClosed) {
+        String q = query != null ? query.trim() : "";
+        if (q.isEmpty()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        int size = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+
+        // Exact substring hits rank first; fuzzy matches only fill the remaining slots
+        List<Lead> results = new ArrayList<>(leadRepo.searchSubstring(q, "%" + escapeLike(q) + "%", includeClosed, size));
+        if (results.size() < size) {
+            Set<UUID> seen = new HashSet<>();
+            results.forEach(l -> seen.add(l.getId()));
+            for (Lead l : leadRepo.searchFuzzy(q, includeClosed, size)) {
+                if (results.size() >= size) break;
+                if (seen.add(l.getId())) results.add(l);
+            }
+        }
+        return results;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     // 🛑 FIX 1: Removed the original findById method that returned Optional<Lead>.
     // It caused the Type Mismatch error in the Controller.
     
     // ✅ NEW: Safe findById method for external calls (Controller/other Services)
     // This is what the LeadController now calls. It resolves the Type Mismatch.
+    @Transactional(readOnly = true)
     public Lead findById(UUID id) { 
         return leadRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lead not found with ID: " + id));
     }
 
     // You can keep the original repository proxy if you still need the Optional for internal logic:
+    @Transactional(readOnly = true)
     public Optional<Lead> findByIdOptional(UUID id) { 
         return leadRepo.findById(id); 
     }
 
     // --- Assign Lead ---
+    @Transactional
     public Lead assign(UUID leadId, UUID userId) {
         // Use the safe findById method
         Lead lead = findById(leadId); 
@@ -58,20 +137,119 @@ public class LeadService {
                 
         lead.setAssignedTo(u);
         lead.setUpdatedAt(Instant.now()); 
-        return leadRepo.save(lead);
+        Lead saved = leadRepo.save(lead);
+        recordChange(Op.UPDATED, saved);
+        return saved;
+    }
+
+    // --- Bulk Reassign ---
+    // Validates the target user once and moves all matching leads with one UPDATE
+    @Transactional
+    public LeadDtos.BulkAssignResponse bulkAssign(LeadDtos.BulkAssignRequest req) {
+        boolean byIds = req.leadIds != null && !req.leadIds.isEmpty();
+        if (req.assignedTo == null) {
+            throw new IllegalArgumentException("assignedTo is required");
+        }
+        if (byIds == (req.fromUserId != null)) {
+            throw new IllegalArgumentException("Provide either leadIds or fromUserId");
+        }
+
+        User u = userRepo.findById(req.assignedTo)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + req.assignedTo));
+        // Truncated to what the column stores, so the change feed can find exactly these rows again
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        LeadDtos.BulkAssignResponse response = new LeadDtos.BulkAssignResponse();
+        if (byIds) {
+            response.requested = req.leadIds.size();
+            response.updated = leadRepo.reassignByIds(req.leadIds, u, now);
+            changeFeed.recordLeads(Op.UPDATED, "l.id = ANY (?)", (Object) req.leadIds.toArray(new UUID[0]));
+        } else {
+            response.updated = leadRepo.reassignFromUser(req.fromUserId, CLOSED_STATUSES, u, now);
+            changeFeed.recordLeads(Op.UPDATED, "l.assigned_to = ? AND l.updated_at = ?", u.getId(), now);
+        }
+        return response;
+    }
+
+    // --- Claim Next Lead ---
+    // Hands the caller the oldest unassigned open lead; SKIP LOCKED keeps concurrent claims apart.
+    // Metrics: leads.claim (timer) and leads.claim.result (counter), both tagged by outcome.
+    @Transactional
+    public Optional<Lead> claimNext(String username) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            User u = userRepo.findByUsername(username)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+
+            Optional<Lead> claimed = leadRepo.lockNextUnassigned();
+            claimed.ifPresent(lead -> {
+                lead.setAssignedTo(u);
+                lead.setUpdatedAt(Instant.now());
+                recordChange(Op.UPDATED, lead);
+            });
+            outcome = claimed.isPresent() ? "claimed" : "empty";
+            return claimed;
+        } finally {
+            sample.stop(meterRegistry.timer("leads.claim", "outcome", outcome));
+            meterRegistry.counter("leads.claim.result", "outcome", outcome).increment();
+        }
     }
 
     // --- Update Status ---
+    @Transactional
     public Lead updateStatus(UUID leadId, Lead.Status status) {
-        // Use the safe findById method
-        Lead lead = findById(leadId);
-        
+        return updateStatus(leadId, status, null);
+    }
+
+    // Closing as CLOSED_WON with the unit that was sold credits the assigned agent's commission
+    @Transactional
+    public Lead updateStatus(UUID leadId, Lead.Status status, UUID unitId) {
+        // Locked, so two concurrent closes can't both see the lead open; lead before unit, the
+        // unit path (PropertyService.updateUnitStatus) only locks the unit
+        Lead lead = leadRepo.lockById(leadId)
+                .orElseThrow(() -> new ResourceNotFoundException("Lead not found with ID: " + leadId));
+        Lead.Status previous = lead.getStatus();
+        Instant now = Instant.now();
+
+        if (status == Lead.Status.CLOSED_WON && previous != status && unitId != null && lead.getAssignedTo() != null) {
+            BuildingUnit unit = unitRepo.lockById(unitId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Building unit not found with ID: " + unitId));
+            eventPublisher.publishEvent(new CommissionService.SaleClosedEvent(
+                    lead.getAssignedTo().getId(), unit, lead.getId()));
+        }
+
+        if (status == Lead.Status.CLOSED_WON && previous != status && lead.getAssignedTo() != null) {
+            eventPublisher.publishEvent(new LeadClosedEvent(lead.getId(), lead.getAssignedTo().getId(), now));
+        }
+
+        if (previous != status) {
+            lead.setClosedAt(CLOSED_STATUSES.contains(status) ? now : null);
+        }
         lead.setStatus(status);
-        lead.setUpdatedAt(Instant.now()); 
-        return leadRepo.save(lead);
+        lead.setUpdatedAt(now); 
+        Lead saved = leadRepo.save(lead);
+        recordChange(Op.UPDATED, saved);
+        return saved;
+    }
+
+    /**
+     * Published when a lead moves to CLOSED_WON; listeners see it after the transaction commits.
+     */
+    public static class LeadClosedEvent {
+        public final UUID leadId;
+        public final UUID userId;
+        public final Instant closedAt;
+
+        public LeadClosedEvent(UUID leadId, UUID userId, Instant closedAt) {
+            this.leadId = leadId;
+            this.userId = userId;
+            this.closedAt = closedAt;
+        }
     }
 
     // --- Update (PUT request) ---
+    @Transactional
     public Lead update(UUID id, LeadDtos.CreateLeadRequest req) {
         // Use the safe findById method (which will throw 404 if not found)
         Lead existingLead = findById(id);
@@ -85,15 +263,17 @@ public class LeadService {
         
         existingLead.setUpdatedAt(Instant.now());
 
-        return leadRepo.save(existingLead);
+        Lead saved = leadRepo.save(existingLead);
+        recordChange(Op.UPDATED, saved);
+        return saved;
     }
 
     // --- Delete (DELETE request) ---
+    @Transactional
     public void delete(UUID id) {
-        if (!leadRepo.existsById(id)) {
-            // Standardize exception type
-            throw new ResourceNotFoundException("Lead not found with ID: " + id);
-        }
-        leadRepo.deleteById(id);
+        // Loaded through the partition-pruned findById; deleteById would look it up by id alone
+        Lead lead = findById(id);
+        changeFeed.record(EntityType.LEAD, Op.DELETED, id, null);
+        leadRepo.delete(lead);
     }
 }
\ No newline at end of file
@@ -0,0 +1,374 @@
+package com.realestatecrm.service;
+
+import com.realestatecrm.dto.LeaderboardDtos;
+import com.realestatecrm.entity.User;
+import com.realestatecrm.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agent leaderboard for the current week and month, ranked by closed deals or by commission.
+ * Scores live in memory and are bumped by the events published when a lead closes and when
+ * commissions are recorded; the ranked top entries are cached per board and only re-ranked after
+ * a change, so polling the board never touches the database. Boards are rebuilt from
+ * {@code leads} and {@code commission_records} on startup, after a recompute, and periodically
+ * as a safety net; rebuilds run one at a time. Events that arrive while a rebuild reads its
+ * snapshot are buffered and applied to the new boards under the same lock that swaps them in,
+ * unless the snapshot already saw them. A lead counts as one deal per period however often it is
+ * reopened and closed again, as in {@code leads}.
+ */
+@Service
+public class LeaderboardService {
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    public enum Period { WEEK, MONTH }
+
+    public enum Metric { DEALS, COMMISSION }
+
+    private static final Comparator<Score> BY_DEALS = Comparator.<Score>comparingLong(s -> s.deals)
+            .thenComparing(s -> s.commission)
+            .thenComparing(s -> s.userId);
+    private static final Comparator<Score> BY_COMMISSION = Comparator.<Score, BigDecimal>comparing(s -> s.commission)
+            .thenComparingLong(s -> s.deals)
+            .thenComparing(s -> s.userId);
+
+    // Deals are leads that reached CLOSED_WON in the period, attributed to the assigned agent
+    private static final String DEALS_SQL =
+            "SELECT id, assigned_to FROM leads " +
+            "WHERE status = 'CLOSED_WON' AND assigned_to IS NOT NULL AND closed_at >= ?";
+    private static final String COMMISSION_SQL =
+            "SELECT user_id, sum(amount) FROM commission_records WHERE issued_at >= ? GROUP BY user_id";
+    // Which buffered events the rebuild snapshot already includes
+    private static final String SEEN_DEALS_SQL =
+            "SELECT id FROM leads WHERE id = ANY (?) AND status = 'CLOSED_WON' AND closed_at IS NOT NULL";
+    private static final String SEEN_SALES_SQL =
+            "SELECT sale_id FROM commission_records WHERE sale_id = ANY (?)";
+
+    private final UserRepository userRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final int maxSize;
+    private final Map<Period, Board> boards = new ConcurrentHashMap<>();
+    private final Map<UUID, String> names = new ConcurrentHashMap<>();
+
+    // Held for a whole rebuild, so overlapping rebuilds can't share or clear each other's buffer
+    private final Object rebuildRunLock = new Object();
+    // Guards swapping in rebuilt boards against the event listeners
+    private final Object rebuildLock = new Object();
+    // Events seen while a rebuild is reading its snapshot; null when no rebuild is running
+    private List<Object> buffered;
+
+    public LeaderboardService(UserRepository userRepo, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              @Value("${leaderboard.max-size:50}") int maxSize) {
+        this.userRepo = userRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        // All snapshot queries, including the check of buffered events, see one database snapshot
+        // (REPEATABLE READ, set by readSnapshot as the first statement of a transaction of its own)
+        this.snapshotTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction.setReadOnly(true);
+        this.maxSize = maxSize;
+        for (Period period : Period.values()) {
+            boards.put(period, new Board(periodStart(period, Instant.now())));
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public LeaderboardDtos.LeaderboardResponse getLeaderboard(Period period, Metric metric, int limit) {
+        Board board = currentBoard(period);
+        List<LeaderboardDtos.Entry> top = board.top(metric);
+
+        LeaderboardDtos.LeaderboardResponse response = new LeaderboardDtos.LeaderboardResponse();
+        response.period = period.name();
+        response.metric = metric.name();
+        response.periodStart = board.start.toString();
+        response.asOf = Instant.now().toString();
+        response.entries = top.subList(0, Math.min(limit, top.size()));
+        return response;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeadClosed(LeadService.LeadClosedEvent event) {
+        synchronized (rebuildLock) {
+            if (buffered != null) buffered.add(event);
+            apply(boards, event);
+        }
+    }
+
+    // Published by the commission flush after its own transaction has committed
+    @EventListener
+    public void onCommissionsRecorded(CommissionService.CommissionsRecordedEvent event) {
+        synchronized (rebuildLock) {
+            if (buffered != null) buffered.add(event);
+            apply(boards, event);
+        }
+    }
+
+    private void apply(Map<Period, Board> target, LeadService.LeadClosedEvent event) {
+        for (Period period : Period.values()) {
+            Board board = currentBoard(target, period);
+            if (board.covers(event.closedAt)) {
+                board.addDeal(event.leadId, event.userId);
+            }
+        }
+    }
+
+    private void apply(Map<Period, Board> target, CommissionService.CommissionsRecordedEvent event) {
+        for (Period period : Period.values()) {
+            Board board = currentBoard(target, period);
+            for (CommissionService.RecordedCommission c : event.commissions) {
+                if (c.amount != null && board.covers(c.issuedAt)) {
+                    board.add(c.userId, 0, c.amount);
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public void onCommissionsRecomputed(CommissionService.CommissionsRecomputedEvent event) {
+        rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.rebuild-interval-ms:900000}",
+               initialDelayString = "${leaderboard.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        synchronized (rebuildRunLock) {
+            long started = System.nanoTime();
+            synchronized (rebuildLock) {
+                buffered = new ArrayList<>();
+            }
+            try {
+                snapshotTransaction.executeWithoutResult(status -> readSnapshot());
+            } finally {
+                synchronized (rebuildLock) {
+                    buffered = null;
+                }
+            }
+            logger.info("Rebuilt leaderboards in {} ms", (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private void readSnapshot() {
+        // Set by statement rather than on the transaction definition: with the replica's
+        // release-after-transaction connection mode, JPA transactions reject custom isolation
+        jdbcTemplate.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+        Map<Period, Board> rebuilt = new EnumMap<>(Period.class);
+        for (Period period : Period.values()) {
+            rebuilt.put(period, readBoard(period));
+        }
+        synchronized (rebuildLock) {
+            applyUnseen(rebuilt, buffered);
+            boards.putAll(rebuilt);
+            buffered = null;
+        }
+    }
+
+    private Board readBoard(Period period) {
+        LocalDate start = periodStart(period, Instant.now());
+        Timestamp since = Timestamp.from(start.atStartOfDay(ZoneOffset.UTC).toInstant());
+        Map<UUID, Score> scores = new HashMap<>();
+        Set<UUID> dealLeads = new HashSet<>();
+        jdbcTemplate.query(DEALS_SQL, rs -> {
+            dealLeads.add(rs.getObject(1, UUID.class));
+            scores.computeIfAbsent(rs.getObject(2, UUID.class), Score::new).deals++;
+        }, since);
+        jdbcTemplate.query(COMMISSION_SQL, rs -> {
+            UUID userId = rs.getObject(1, UUID.class);
+            BigDecimal amount = rs.getBigDecimal(2);
+            scores.computeIfAbsent(userId, Score::new).commission = amount != null ? amount : BigDecimal.ZERO;
+        }, since);
+        return new Board(start, scores, dealLeads);
+    }
+
+    // Applies the buffered events the snapshot did not include: their transactions committed after it was taken
+    private void applyUnseen(Map<Period, Board> rebuilt, List<Object> events) {
+        if (events.isEmpty()) return;
+        List<UUID> leadIds = new ArrayList<>();
+        List<UUID> saleIds = new ArrayList<>();
+        for (Object event : events) {
+            if (event instanceof LeadService.LeadClosedEvent closed) {
+                leadIds.add(closed.leadId);
+            } else if (event instanceof CommissionService.CommissionsRecordedEvent recorded) {
+                recorded.commissions.forEach(c -> saleIds.add(c.saleId));
+            }
+        }
+        Set<UUID> seenLeads = seen(SEEN_DEALS_SQL, leadIds);
+        Set<UUID> seenSales = seen(SEEN_SALES_SQL, saleIds);
+        for (Object event : events) {
+            if (event instanceof LeadService.LeadClosedEvent closed) {
+                if (!seenLeads.contains(closed.leadId)) apply(rebuilt, closed);
+            } else if (event instanceof CommissionService.CommissionsRecordedEvent recorded) {
+                List<CommissionService.RecordedCommission> unseen = recorded.commissions.stream()
+                        .filter(c -> !seenSales.contains(c.saleId))
+                        .toList();
+                if (!unseen.isEmpty()) apply(rebuilt, new CommissionService.CommissionsRecordedEvent(unseen));
+            }
+        }
+    }
+
+    private Set<UUID> seen(String sql, List<UUID> ids) {
+        if (ids.isEmpty()) return Set.of();
+        return new HashSet<>(jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, (rs, i) -> rs.getObject(1, UUID.class)));
+    }
+
+    // Swaps in an empty board once the week/month has rolled over
+    private Board currentBoard(Period period) {
+        return currentBoard(boards, period);
+    }
+
+    private Board currentBoard(Map<Period, Board> target, Period period) {
+        LocalDate start = periodStart(period, Instant.now());
+        Board board = target.get(period);
+        if (!board.start.equals(start)) {
+            board = target.compute(period, (p, existing) -> existing.start.equals(start) ? existing : new Board(start));
+        }
+        return board;
+    }
+
+    static LocalDate periodStart(Period period, Instant now) {
+        LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        return period == Period.WEEK
+                ? today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : today.withDayOfMonth(1);
+    }
+
+    private String displayName(UUID userId) {
+        return names.computeIfAbsent(userId, id -> userRepo.findById(id)
+                .map(LeaderboardService::displayName)
+                .orElse(id.toString()));
+    }
+
+    private static String displayName(User user) {
+        String full = ((user.getFirstName() != null ? user.getFirstName() : "") + " "
+                + (user.getLastName() != null ? user.getLastName() : "")).trim();
+        return full.isEmpty() ? user.getUsername() : full;
+    }
+
+    private static class Score {
+        final UUID userId;
+        long deals;
+        BigDecimal commission = BigDecimal.ZERO;
+
+        Score(UUID userId) {
+            this.userId = userId;
+        }
+    }
+
+    // Scores for one period. Writes take the board's lock; reads return the cached ranking and
+    // re-rank only when a write has happened since
+    private class Board {
+        final LocalDate start;
+        final Instant startInstant;
+        private final Map<UUID, Score> scores;
+        // Leads already counted as deals
+        private final Set<UUID> dealLeads;
+        private volatile Map<Metric, List<LeaderboardDtos.Entry>> ranked = Map.of();
+        private volatile boolean dirty = true;
+
+        Board(LocalDate start) {
+            this(start, new HashMap<>(), new HashSet<>());
+        }
+
+        Board(LocalDate start, Map<UUID, Score> scores, Set<UUID> dealLeads) {
+            this.start = start;
+            this.startInstant = start.atStartOfDay(ZoneOffset.UTC).toInstant();
+            this.scores = scores;
+            this.dealLeads = dealLeads;
+        }
+
+        boolean covers(Instant at) {
+            return at != null && !at.isBefore(startInstant);
+        }
+
+        // A lead closed again after being reopened is still one deal
+        synchronized void addDeal(UUID leadId, UUID userId) {
+            if (dealLeads.add(leadId)) {
+                add(userId, 1, BigDecimal.ZERO);
+            }
+        }
+
+        synchronized void add(UUID userId, long deals, BigDecimal commission) {
+            Score score = scores.computeIfAbsent(userId, Score::new);
+            score.deals += deals;
+            score.commission = score.commission.add(commission);
+            dirty = true;
+        }
+
+        List<LeaderboardDtos.Entry> top(Metric metric) {
+            if (dirty) {
+                rank();
+            }
+            return ranked.get(metric);
+        }
+
+        private synchronized void rank() {
+            if (!dirty) return;
+            dirty = false;
+            ranked = Map.of(Metric.DEALS, topK(BY_DEALS), Metric.COMMISSION, topK(BY_COMMISSION));
+        }
+
+        // Bounded min-heap: O(n log k) over the board's agents
+        private List<LeaderboardDtos.Entry> topK(Comparator<Score> order) {
+            PriorityQueue<Score> heap = new PriorityQueue<>(maxSize + 1, order);
+            for (Score s : scores.values()) {
+                if (s.deals == 0 && s.commission.signum() == 0) continue;
+                heap.offer(s);
+                if (heap.size() > maxSize) heap.poll();
+            }
+            List<Score> best = new ArrayList<>(heap);
+            best.sort(order.reversed());
+
+            List<LeaderboardDtos.Entry> entries = new ArrayList<>(best.size());
+            for (Score s : best) {
+                LeaderboardDtos.Entry e = new LeaderboardDtos.Entry();
+                e.rank = entries.size() + 1;
+                e.userId = s.userId;
+                e.name = displayName(s.userId);
+                e.deals = s.deals;
+                e.commission = s.commission;
+                entries.add(e);
+            }
+            return List.copyOf(entries);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.realestatecrm.service;
+
+import com.realestatecrm.dto.PayrollDtos;
+import com.realestatecrm.entity.PayrollRun;
+import com.realestatecrm.entity.User;
+import com.realestatecrm.exception.ResourceNotFoundException;
+import com.realestatecrm.repository.PayrollRunRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Array;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Monthly payroll: base salary plus the month's commission (from commission_monthly_rollups)
+ * according to each user's {@link User.CompensationType}. Users are read in keyset-paged chunks,
+ * pay is computed chunk-parallel on a dedicated fork-join pool, and entries are written with JDBC
+ * batches in one transaction. Each run records how long reading, computing and writing took.
+ */
+@Service
+public class PayrollService {
+    private static final Logger logger = LoggerFactory.getLogger(PayrollService.class);
+
+    private static final String INSERT_ENTRY_SQL =
+            "INSERT INTO payroll_entries (run_id, user_id, compensation_type, base_salary, commission, total_pay) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final PayrollRunRepository runRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public PayrollService(PayrollRunRepository runRepo, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          @Value("${payroll.chunk-size:500}") int chunkSize,
+                          @Value("${payroll.parallelism:0}") int parallelism) {
+        this.runRepo = runRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // One user's input to the computation
+    private record PayInput(UUID userId, String compensationType, BigDecimal baseSalary, BigDecimal commission) {}
+
+    private record PayEntry(UUID userId, String compensationType, BigDecimal baseSalary,
+                            BigDecimal commission, BigDecimal totalPay) {}
+
+    public PayrollRun run(YearMonth month) {
+        LocalDate periodMonth = month.atDay(1);
+        PayrollRun run = runRepo.save(new PayrollRun(periodMonth));
+        long started = System.nanoTime();
+        try {
+            long t0 = System.nanoTime();
+            List<List<PayInput>> chunks = readChunks(periodMonth);
+            long t1 = System.nanoTime();
+            List<List<PayEntry>> computed = pool.submit(() -> chunks.parallelStream()
+                    .map(PayrollService::computeChunk)
+                    .collect(Collectors.toList())).get();
+            long t2 = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> {
+                for (List<PayEntry> chunk : computed) {
+                    jdbcTemplate.batchUpdate(INSERT_ENTRY_SQL, chunk, chunk.size(), (ps, e) -> {
+                        ps.setObject(1, run.getId());
+                        ps.setObject(2, e.userId());
+                        ps.setString(3, e.compensationType());
+                        ps.setBigDecimal(4, e.baseSalary());
+                        ps.setBigDecimal(5, e.commission());
+                        ps.setBigDecimal(6, e.totalPay());
+                    });
+                }
+            });
+            long t3 = System.nanoTime();
+
+            BigDecimal base = BigDecimal.ZERO, commission = BigDecimal.ZERO, pay = BigDecimal.ZERO;
+            int users = 0;
+            for (List<PayEntry> chunk : computed) {
+                for (PayEntry e : chunk) {
+                    base = base.add(e.baseSalary());
+                    commission = commission.add(e.commission());
+                    pay = pay.add(e.totalPay());
+                    users++;
+                }
+            }
+            run.setUserCount(users);
+            run.setTotalBase(base);
+            run.setTotalCommission(commission);
+            run.setTotalPay(pay);
+            run.setReadMs(millis(t0, t1));
+            run.setComputeMs(millis(t1, t2));
+            run.setWriteMs(millis(t2, t3));
+            run.setStatus(PayrollRun.Status.COMPLETED);
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            logger.error("Payroll run {} for {} failed: {}", run.getId(), month, cause.getMessage());
+            run.setStatus(PayrollRun.Status.FAILED);
+            run.setError(cause.getMessage());
+        }
+        run.setTotalMs(millis(started, System.nanoTime()));
+        run.setFinishedAt(Instant.now());
+        runRepo.save(run);
+        logger.info("Payroll run {} for {} {}: users={}, read={}ms, compute={}ms, write={}ms, total={}ms",
+                run.getId(), month, run.getStatus(), run.getUserCount(),
+                run.getReadMs(), run.getComputeMs(), run.getWriteMs(), run.getTotalMs());
+        return run;
+    }
+
+    // Keyset-pages through users, joining each page with its commission rollups for the month
+    private List<List<PayInput>> readChunks(LocalDate periodMonth) {
+        List<List<PayInput>> chunks = new ArrayList<>();
+        UUID lastId = new UUID(0L, 0L);
+        while (true) {
+            List<PayInput> users = jdbcTemplate.query(
+                    "SELECT id, compensation_type, base_salary FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, i) -> new PayInput(rs.getObject("id", UUID.class), rs.getString("compensation_type"),
+                            rs.getBigDecimal("base_salary"), null),
+                    lastId, chunkSize);
+            if (users.isEmpty()) break;
+
+            UUID[] ids = users.stream().map(PayInput::userId).toArray(UUID[]::new);
+            Map<UUID, BigDecimal> commissions = new HashMap<>();
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(
+                        "SELECT user_id, total_amount FROM commission_monthly_rollups WHERE period_month = ? AND user_id = ANY (?)");
+                ps.setObject(1, periodMonth);
+                Array array = con.createArrayOf("uuid", ids);
+                ps.setArray(2, array);
+                return ps;
+            }, rs -> {
+                commissions.put(rs.getObject("user_id", UUID.class), rs.getBigDecimal("total_amount"));
+            });
+
+            chunks.add(users.stream()
+                    .map(u -> new PayInput(u.userId(), u.compensationType(), u.baseSalary(), commissions.get(u.userId())))
+                    .collect(Collectors.toList()));
+            lastId = ids[ids.length - 1];
+        }
+        return chunks;
+    }
+
+    private static List<PayEntry> computeChunk(List<PayInput> chunk) {
+        List<PayEntry> entries = new ArrayList<>(chunk.size());
+        for (PayInput in : chunk) {
+            entries.add(compute(in));
+        }
+        return entries;
+    }
+
+    private static PayEntry compute(PayInput in) {
+        User.CompensationType type = in.compensationType() != null
+                ? User.CompensationType.valueOf(in.compensationType()) : null;
+        BigDecimal salary = in.baseSalary() != null ? in.baseSalary() : BigDecimal.ZERO;
+        BigDecimal earned = in.commission() != null ? in.commission() : BigDecimal.ZERO;
+
+        BigDecimal base;
+        BigDecimal commission;
+        if (type == User.CompensationType.COMMISSION) {
+            base = BigDecimal.ZERO;
+            commission = earned;
+        } else if (type == User.CompensationType.SALARY_PLUS_COMMISSION) {
+            base = salary;
+            commission = earned;
+        } else {
+            // SALARY, or no compensation set up yet
+            base = salary;
+            commission = BigDecimal.ZERO;
+        }
+        base = base.setScale(2, RoundingMode.HALF_UP);
+        commission = commission.setScale(2, RoundingMode.HALF_UP);
+        return new PayEntry(in.userId(), in.compensationType(), base, commission, base.add(commission));
+    }
+
+    private static long millis(long fromNanos, long toNanos) {
+        return (toNanos - fromNanos) / 1_000_000;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PayrollRun> listRuns() {
+        return runRepo.findTop50ByOrderByStartedAtDesc();
+    }
+
+    @Transactional(readOnly = true)
+    public PayrollRun getRun(UUID id) {
+        return runRepo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Payroll run not found with ID: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<PayrollDtos.EntryResponse> getEntries(UUID runId) {
+        getRun(runId);
+        return jdbcTemplate.query(
+                "SELECT user_id, compensation_type, base_salary, commission, total_pay " +
+                "FROM payroll_entries WHERE run_id = ? ORDER BY user_id",
+                (rs, i) -> {
+                    PayrollDtos.EntryResponse e = new PayrollDtos.EntryResponse();
+                    e.userId = rs.getObject("user_id", UUID.class);
+                    e.compensationType = rs.getString("compensation_type");
+                    e.baseSalary = rs.getBigDecimal("base_salary");
+                    e.commission = rs.getBigDecimal("commission");
+                    e.totalPay = rs.getBigDecimal("total_pay");
+                    return e;
+                }, runId);
+    }
+}
@@ -0,0 +1,92 @@
+package com.realestatecrm.service;
+
+import com.realestatecrm.dto.FieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs list queries for sparse fieldsets ({@code ?fields=}): a tuple query selecting only the
+ * columns behind the requested fields, with no entity hydration, persistence-context tracking or
+ * lazy loads. Rows come back as ordered maps keyed by field name, with enums and timestamps
+ * rendered as strings the way the full response DTOs render them.
+ */
+@Service
+public class ProjectionService {
+
+    private final EntityManager entityManager;
+
+    public ProjectionService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public <E> List<Map<String, Object>> select(Class<E> type, FieldSet fieldSet, String fields, Specification<E> filter) {
+        List<FieldSet.Field> selected = fieldSet.select(fields);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(type);
+        Map<String, Join<E, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (FieldSet.Field field : selected) {
+            if (field.path() != null) selections.add(expression(cb, root, joins, field.path()).alias(field.name()));
+        }
+        query.multiselect(selections);
+        if (filter != null) {
+            query.where(filter.toPredicate(root, query, cb));
+        }
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (FieldSet.Field field : selected) {
+                row.put(field.name(), field.path() != null ? render(tuple.get(field.name())) : field.constant());
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static <E> Expression<?> expression(CriteriaBuilder cb, Root<E> root, Map<String, Join<E, ?>> joins, String path) {
+        if (path.startsWith("size(")) {
+            return cb.size(root.get(path.substring(5, path.length() - 1)));
+        }
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            return root.get(path);
+        }
+        String association = path.substring(0, dot);
+        String attribute = path.substring(dot + 1);
+        // The id of a to-one association is its foreign key column; no join needed
+        if (attribute.equals("id")) {
+            return root.get(association).get("id");
+        }
+        Path<?> joined = joins.computeIfAbsent(association, a -> root.join(a, JoinType.LEFT));
+        return joined.get(attribute);
+    }
+
+    private static Object render(Object value) {
+        if (value instanceof Enum<?> e) return e.name();
+        if (value instanceof Temporal t) return t.toString();
+        return value;
+    }
+}
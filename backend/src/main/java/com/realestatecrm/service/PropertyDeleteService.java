@@ -0,0 +1,303 @@
+package com.realestatecrm.service;
+
+import com.realestatecrm.dto.PropertyDtos;
+import com.realestatecrm.exception.ResourceNotFoundException;
+import com.realestatecrm.service.ChangeFeedService.EntityType;
+import com.realestatecrm.service.ChangeFeedService.Op;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes a site or building with everything under it as a background job. Units, then buildings,
+ * are removed with set-based DELETEs of {@code properties.delete.batch-size} rows, each batch in
+ * its own short transaction together with its change-feed events, so no request or transaction
+ * ever has to hold the whole subtree. Batches select by parent rather than from a snapshot, and
+ * a building is only deleted once it has no units, so nothing goes by cascade without its event.
+ * While a job runs PropertyService refuses new buildings and units under its target; one created
+ * just before that is picked up by another pass, and the parent row goes once nothing is left
+ * under it. A job that fails part-way can simply be started again.
+ */
+@Service
+public class PropertyDeleteService {
+    private static final Logger logger = LoggerFactory.getLogger(PropertyDeleteService.class);
+
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+    // Passes over the subtree before a job gives up on children that keep appearing
+    private static final int MAX_PASSES = 10;
+
+    // Buildings b in scope: under the site for a SITE job, the building itself for a BUILDING job
+    private static final String SITE_BUILDINGS = "b.site_id = ?";
+    private static final String BUILDING_ITSELF = "b.id = ?";
+
+    private static final String DELETE_UNITS_SQL =
+            "WITH deleted AS ( " +
+            "  DELETE FROM building_units WHERE id IN ( " +
+            "    SELECT id FROM building_units WHERE building_id IN (SELECT b.id FROM buildings b WHERE %s) LIMIT ?) " +
+            "  RETURNING id " +
+            "), feed AS ( " +
+            "  INSERT INTO change_events (entity_type, entity_id, op) SELECT 'UNIT', id, 'DELETED' FROM deleted " +
+            ") " +
+            "SELECT count(*) FROM deleted";
+
+    // Skips buildings that got a unit since the last units pass; the next pass takes them
+    private static final String DELETE_BUILDINGS_SQL =
+            "WITH deleted AS ( " +
+            "  DELETE FROM buildings WHERE id IN ( " +
+            "    SELECT b.id FROM buildings b WHERE %s " +
+            "    AND NOT EXISTS (SELECT 1 FROM building_units u WHERE u.building_id = b.id) LIMIT ?) " +
+            "  RETURNING id " +
+            "), feed AS ( " +
+            "  INSERT INTO change_events (entity_type, entity_id, op) SELECT 'BUILDING', id, 'DELETED' FROM deleted " +
+            ") " +
+            "SELECT count(*) FROM deleted";
+
+    private static final String DELETE_SITE_SQL =
+            "DELETE FROM sites s WHERE s.id = ? AND NOT EXISTS (SELECT 1 FROM buildings b WHERE b.site_id = s.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeFeedService changeFeed;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Map<UUID, DeleteJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+
+    public PropertyDeleteService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 ChangeFeedService changeFeed, MeterRegistry meterRegistry,
+                                 @Value("${properties.delete.batch-size:500}") int batchSize,
+                                 @Value("${properties.delete.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.changeFeed = changeFeed;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(maxConcurrentJobs, r -> {
+            Thread t = new Thread(r, "property-delete-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public DeleteJob startSiteDelete(UUID siteId) {
+        if (!exists("sites", siteId)) {
+            throw new ResourceNotFoundException("Site not found with ID: " + siteId);
+        }
+        return start(EntityType.SITE, siteId);
+    }
+
+    public DeleteJob startBuildingDelete(UUID buildingId) {
+        if (!exists("buildings", buildingId)) {
+            throw new ResourceNotFoundException("Building not found with ID: " + buildingId);
+        }
+        return start(EntityType.BUILDING, buildingId);
+    }
+
+    /** Refuses a new or moved building under a site that is being deleted. */
+    public void checkSiteNotDeleting(UUID siteId) {
+        if (siteId != null && isDeleting(siteId)) {
+            throw new IllegalArgumentException("Site " + siteId + " is being deleted");
+        }
+    }
+
+    /** Refuses a new or moved unit under a building, or a building of a site, that is being deleted. */
+    public void checkBuildingNotDeleting(UUID buildingId) {
+        if (buildingId == null) return;
+        if (isDeleting(buildingId)) {
+            throw new IllegalArgumentException("Building " + buildingId + " is being deleted");
+        }
+        boolean siteJobs = jobs.values().stream().anyMatch(job -> job.type == EntityType.SITE && !job.isFinished());
+        if (siteJobs) {
+            List<UUID> site = jdbcTemplate.queryForList("SELECT site_id FROM buildings WHERE id = ?", UUID.class, buildingId);
+            if (!site.isEmpty()) checkSiteNotDeleting(site.get(0));
+        }
+    }
+
+    private boolean isDeleting(UUID targetId) {
+        return jobs.values().stream().anyMatch(job -> job.targetId.equals(targetId) && !job.isFinished());
+    }
+
+    public DeleteJob getJob(UUID jobId) {
+        DeleteJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Delete job not found with ID: " + jobId);
+        }
+        return job;
+    }
+
+    private boolean exists(String table, UUID id) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + " WHERE id = ?)", Boolean.class, id));
+    }
+
+    // A second request for a target that is already being deleted gets the running job
+    private synchronized DeleteJob start(EntityType type, UUID targetId) {
+        evictFinishedJobs();
+        for (DeleteJob job : jobs.values()) {
+            if (job.targetId.equals(targetId) && !job.isFinished()) return job;
+        }
+        DeleteJob job = new DeleteJob(type, targetId);
+        jobs.put(job.id, job);
+        workers.submit(() -> run(job));
+        logger.info("Queued delete job {} for {} {}", job.id, type, targetId);
+        return job;
+    }
+
+    private void run(DeleteJob job) {
+        job.status = DeleteJob.Status.RUNNING;
+        job.startedAt = Instant.now();
+        try {
+            String scope = job.type == EntityType.SITE ? SITE_BUILDINGS : BUILDING_ITSELF;
+            String deleteUnits = String.format(DELETE_UNITS_SQL, scope);
+            String deleteBuildings = String.format(DELETE_BUILDINGS_SQL, scope);
+            for (int pass = 1; ; pass++) {
+                job.passes = pass;
+                job.buildingsTotal = job.buildingsDeleted.get()
+                        + count("SELECT count(*) FROM buildings b WHERE " + scope, job.targetId);
+                job.unitsTotal = job.unitsDeleted.get() + count(
+                        "SELECT count(*) FROM building_units WHERE building_id IN (SELECT b.id FROM buildings b WHERE " + scope + ")",
+                        job.targetId);
+
+                long before = job.unitsDeleted.get() + job.buildingsDeleted.get();
+                DataIntegrityViolationException conflict = deleteInBatches(deleteUnits, job.targetId, job.unitsDeleted, job);
+                DataIntegrityViolationException buildingConflict =
+                        deleteInBatches(deleteBuildings, job.targetId, job.buildingsDeleted, job);
+                if (deleteParent(job)) break;
+                if (conflict == null) conflict = buildingConflict;
+                // No progress means whatever is left is not going away by deleting again
+                if (job.unitsDeleted.get() + job.buildingsDeleted.get() == before || pass == MAX_PASSES) {
+                    throw conflict != null ? conflict
+                            : new IllegalStateException(job.type + " " + job.targetId + " still has children after " + pass + " passes");
+                }
+                logger.info("Delete job {}: {} {} still has children, starting pass {}",
+                        job.id, job.type, job.targetId, pass + 1);
+            }
+            // Children added during the last pass were counted by no earlier one
+            job.unitsTotal = job.unitsDeleted.get();
+            job.buildingsTotal = job.buildingsDeleted.get();
+            job.status = DeleteJob.Status.COMPLETED;
+        } catch (Exception e) {
+            job.failure = e.getMessage();
+            job.status = DeleteJob.Status.FAILED;
+            logger.error("Delete job {} for {} {} failed", job.id, job.type, job.targetId, e);
+        } finally {
+            job.finishedAt = Instant.now();
+            // Runs on a worker thread, out of sight of ServiceMetricsAspect
+            meterRegistry.timer("properties.delete.jobs", "target", job.type.name(), "status", job.status.name())
+                    .record(Duration.between(job.startedAt, job.finishedAt));
+            logger.info("Delete job {} {} for {} {}: units={}/{}, buildings={}/{}, batches={}, passes={}, {} ms",
+                    job.id, job.status, job.type, job.targetId, job.unitsDeleted.get(), job.unitsTotal,
+                    job.buildingsDeleted.get(), job.buildingsTotal, job.batches.get(), job.passes,
+                    Duration.between(job.startedAt, job.finishedAt).toMillis());
+        }
+    }
+
+    private long count(String sql, UUID targetId) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, targetId);
+        return count != null ? count : 0;
+    }
+
+    // True once the target is gone. A building target went with the last buildings batch; a site
+    // row is only deleted while no building is left under it, so nothing is removed by cascade.
+    private boolean deleteParent(DeleteJob job) {
+        if (job.type == EntityType.BUILDING) {
+            return !exists("buildings", job.targetId);
+        }
+        Boolean deleted = transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(DELETE_SITE_SQL, job.targetId) == 0) return false;
+            changeFeed.record(EntityType.SITE, Op.DELETED, job.targetId, null);
+            return true;
+        });
+        return Boolean.TRUE.equals(deleted) || !exists("sites", job.targetId);
+    }
+
+    // Runs one short transaction per batch until nothing is left to delete. A batch that trips a
+    // foreign key (a child committed just before the job started) ends this pass and is returned;
+    // the next pass deletes the child first.
+    private DataIntegrityViolationException deleteInBatches(String sql, UUID targetId, AtomicLong deleted, DeleteJob job) {
+        while (true) {
+            Long n;
+            try {
+                n = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(sql, Long.class, targetId, batchSize));
+            } catch (DataIntegrityViolationException e) {
+                logger.info("Delete job {}: batch hit a foreign key, deferring to the next pass: {}", job.id, e.getMessage());
+                return e;
+            }
+            if (n == null || n == 0) return null;
+            deleted.addAndGet(n);
+            job.batches.incrementAndGet();
+        }
+    }
+
+    private void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt.isBefore(cutoff));
+    }
+
+    public static class DeleteJob {
+        public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+        private final UUID id = UUID.randomUUID();
+        private final EntityType type;
+        private final UUID targetId;
+        private final AtomicLong unitsDeleted = new AtomicLong();
+        private final AtomicLong buildingsDeleted = new AtomicLong();
+        private final AtomicLong batches = new AtomicLong();
+        private volatile int passes;
+        private volatile long unitsTotal;
+        private volatile long buildingsTotal;
+        private volatile Status status = Status.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String failure;
+
+        DeleteJob(EntityType type, UUID targetId) {
+            this.type = type;
+            this.targetId = targetId;
+        }
+
+        public boolean isFinished() {
+            return status == Status.COMPLETED || status == Status.FAILED;
+        }
+
+        public PropertyDtos.DeleteJobResponse toResponse() {
+            PropertyDtos.DeleteJobResponse response = new PropertyDtos.DeleteJobResponse();
+            response.jobId = id;
+            response.targetType = type.name();
+            response.targetId = targetId;
+            response.status = status.name();
+            response.unitsTotal = unitsTotal;
+            response.unitsDeleted = unitsDeleted.get();
+            response.buildingsTotal = buildingsTotal;
+            response.buildingsDeleted = buildingsDeleted.get();
+            response.batches = batches.get();
+            response.startedAt = startedAt != null ? startedAt.toString() : null;
+            response.finishedAt = finishedAt != null ? finishedAt.toString() : null;
+            response.error = failure;
+            return response;
+        }
+    }
+}
@@ -4,12 +4,17 @@ import com.realestatecrm.dto.PropertyDtos;
 import com.realestatecrm.entity.*;
 import com.realestatecrm.exception.ResourceNotFoundException;
 import com.realestatecrm.repository.*;
+import com.realestatecrm.service.ChangeFeedService.EntityType;
+import com.realestatecrm.service.ChangeFeedService.Op;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -19,17 +24,33 @@ public class PropertyService {
     private final BuildingRepository buildingRepo;
     private final BuildingUnitRepository unitRepo;
     private final OwnerRepository ownerRepo;
+    private final UserRepository userRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnitSearchService unitSearch;
+    private final ChangeFeedService changeFeed;
+    private final ProjectionService projections;
+    private final PropertyDeleteService propertyDeletes;
     private static final Logger logger = LoggerFactory.getLogger(PropertyService.class);
 
     public PropertyService(SiteRepository siteRepo, BuildingRepository buildingRepo, 
-                          BuildingUnitRepository unitRepo, OwnerRepository ownerRepo) {
+                          BuildingUnitRepository unitRepo, OwnerRepository ownerRepo,
+                          UserRepository userRepo, ApplicationEventPublisher eventPublisher,
+                          UnitSearchService unitSearch, ChangeFeedService changeFeed,
+                          ProjectionService projections, PropertyDeleteService propertyDeletes) {
         this.siteRepo = siteRepo;
         this.buildingRepo = buildingRepo;
         this.unitRepo = unitRepo;
         this.ownerRepo = ownerRepo;
+        this.userRepo = userRepo;
+        this.eventPublisher = eventPublisher;
+        this.unitSearch = unitSearch;
+        this.changeFeed = changeFeed;
+        this.projections = projections;
+        this.propertyDeletes = propertyDeletes;
     }
 
     // === SITE METHODS ===
+    @Transactional(readOnly = true)
     public List<Site> getAllSites() {
         logger.info("Fetching all sites");
         try {
@@ -42,6 +63,13 @@ public class PropertyService {
         }
     }
 
+    // Sparse fieldsets (?fields=): only the requested columns are selected, no entities loaded
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getSiteFields(String fields) {
+        return projections.select(Site.class, PropertyDtos.SiteResponse.FIELDS, fields, null);
+    }
+
+    @Transactional(readOnly = true)
     public Site getSiteById(UUID id) {
         logger.info("Fetching site by ID: {}", id);
         return siteRepo.findById(id)
@@ -63,6 +91,7 @@ public class PropertyService {
             site.setParkingAvailable(request.parkingAvailable != null ? request.parkingAvailable : false);
             
             Site savedSite = siteRepo.save(site);
+            changeFeed.record(EntityType.SITE, Op.CREATED, savedSite.getId(), PropertyDtos.SiteResponse.fromEntity(savedSite));
             logger.info("Site created successfully with ID: {}", savedSite.getId());
             return savedSite;
         } catch (Exception e) {
@@ -98,6 +127,8 @@ public class PropertyService {
             if (request.parkingAvailable != null) site.setParkingAvailable(request.parkingAvailable);
             
             Site updatedSite = siteRepo.save(site);
+            unitSearch.refreshSite(id);
+            changeFeed.record(EntityType.SITE, Op.UPDATED, id, PropertyDtos.SiteResponse.fromEntity(updatedSite));
             logger.info("Site updated successfully");
             return updatedSite;
         } catch (Exception e) {
@@ -106,21 +137,8 @@ public class PropertyService {
         }
     }
 
-    public void deleteSite(UUID id) {
-        logger.info("Deleting site with ID: {}", id);
-        try {
-            if (!siteRepo.existsById(id)) {
-                throw new ResourceNotFoundException("Site not found with ID: " + id);
-            }
-            siteRepo.deleteById(id);
-            logger.info("Site deleted successfully");
-        } catch (Exception e) {
-            logger.error("Error deleting site: {}", e.getMessage());
-            throw new RuntimeException("Failed to delete site: " + e.getMessage());
-        }
-    }
-
     // === BUILDING METHODS ===
+    @Transactional(readOnly = true)
     public List<Building> getAllBuildings() {
         logger.info("Fetching all buildings");
         try {
@@ -133,6 +151,7 @@ public class PropertyService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Building> getBuildingsBySite(UUID siteId) {
         logger.info("Fetching buildings for site ID: {}", siteId);
         try {
@@ -146,9 +165,18 @@ public class PropertyService {
         }
     }
 
+    // Sparse fieldsets (?fields=), optionally for one site
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getBuildingFields(String fields, UUID siteId) {
+        Specification<Building> filter = siteId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("site").get("id"), siteId);
+        return projections.select(Building.class, PropertyDtos.BuildingResponse.FIELDS, fields, filter);
+    }
+
     public Building createBuilding(PropertyDtos.CreateBuildingRequest request) {
         logger.info("Creating building: {}", request.name);
-        
+        propertyDeletes.checkSiteNotDeleting(request.siteId);
+
         try {
             // Validate required fields
             validateBuildingRequest(request);
@@ -162,6 +190,7 @@ public class PropertyService {
             building.setSite(site);
             
             Building savedBuilding = buildingRepo.save(building);
+            changeFeed.record(EntityType.BUILDING, Op.CREATED, savedBuilding.getId(), PropertyDtos.BuildingResponse.fromEntity(savedBuilding));
             logger.info("Building created successfully with ID: {}", savedBuilding.getId());
             return savedBuilding;
         } catch (Exception e) {
@@ -187,6 +216,7 @@ public class PropertyService {
 
     public Building updateBuilding(UUID id, PropertyDtos.CreateBuildingRequest request) {
         logger.info("Updating building with ID: {}", id);
+        propertyDeletes.checkSiteNotDeleting(request.siteId);
         try {
             Building building = getBuildingById(id);
             
@@ -200,6 +230,8 @@ public class PropertyService {
             }
             
             Building updatedBuilding = buildingRepo.save(building);
+            unitSearch.refreshBuilding(id);
+            changeFeed.record(EntityType.BUILDING, Op.UPDATED, id, PropertyDtos.BuildingResponse.fromEntity(updatedBuilding));
             logger.info("Building updated successfully");
             return updatedBuilding;
         } catch (Exception e) {
@@ -208,70 +240,50 @@ public class PropertyService {
         }
     }
 
-    public void deleteBuilding(UUID id) {
-        logger.info("Deleting building with ID: {}", id);
-        try {
-            if (!buildingRepo.existsById(id)) {
-                throw new ResourceNotFoundException("Building not found with ID: " + id);
-            }
-            buildingRepo.deleteById(id);
-            logger.info("Building deleted successfully");
-        } catch (Exception e) {
-            logger.error("Error deleting building: {}", e.getMessage());
-            throw new RuntimeException("Failed to delete building: " + e.getMessage());
-        }
-    }
-
     private Building getBuildingById(UUID id) {
         return buildingRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Building not found with ID: " + id));
     }
 
     // === BUILDING UNIT METHODS ===
-    public List<BuildingUnit> getAllUnits() {
-        try {
-            return unitRepo.findAll();
-        } catch (Exception e) {
-            logger.error("Error fetching units: {}", e.getMessage());
-            throw new RuntimeException("Failed to fetch units: " + e.getMessage());
-        }
+    // Served from the unit_search read model; validates the enum filters before they reach SQL
+    @Transactional(readOnly = true)
+    public List<PropertyDtos.UnitResponse> getUnits(BuildingUnit.Status status, BuildingUnit.UnitType type,
+                                                    UUID buildingId) {
+        return unitSearch.list(status != null ? status.name() : null, type != null ? type.name() : null, buildingId);
     }
 
-    public List<BuildingUnit> getUnitsByStatus(BuildingUnit.Status status) {
-        try {
-            return unitRepo.findByStatus(status);
-        } catch (Exception e) {
-            logger.error("Error fetching units by status: {}", e.getMessage());
-            throw new RuntimeException("Failed to fetch units: " + e.getMessage());
-        }
-    }
-
-    public List<BuildingUnit> getUnitsByType(BuildingUnit.UnitType type) {
-        try {
-            return unitRepo.findByType(type);
-        } catch (Exception e) {
-            logger.error("Error fetching units by type: {}", e.getMessage());
-            throw new RuntimeException("Failed to fetch units: " + e.getMessage());
-        }
-    }
-
-    public List<BuildingUnit> getUnitsByBuilding(UUID buildingId) {
-        try {
-            Building building = getBuildingById(buildingId);
-            return unitRepo.findByBuilding(building);
-        } catch (Exception e) {
-            logger.error("Error fetching units by building: {}", e.getMessage());
-            throw new RuntimeException("Failed to fetch units: " + e.getMessage());
+    // Sparse fieldsets (?fields=), with the same filter precedence as GET /units
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getUnitFields(String fields, BuildingUnit.Status status,
+                                                   BuildingUnit.UnitType type, UUID buildingId) {
+        Specification<BuildingUnit> filter;
+        if (status != null) {
+            filter = (root, query, cb) -> cb.equal(root.get("status"), status);
+        } else if (type != null) {
+            filter = (root, query, cb) -> cb.equal(root.get("type"), type);
+        } else if (buildingId != null) {
+            filter = (root, query, cb) -> cb.equal(root.get("building").get("id"), buildingId);
+        } else {
+            filter = null;
         }
+        return projections.select(BuildingUnit.class, PropertyDtos.UnitResponse.FIELDS, fields, filter);
     }
 
+    @Transactional(readOnly = true)
     public BuildingUnit getUnitById(UUID id) {
         return unitRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Building unit not found with ID: " + id));
     }
 
+    private BuildingUnit lockUnitById(UUID id) {
+        return unitRepo.lockById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Building unit not found with ID: " + id));
+    }
+
     public BuildingUnit createUnit(PropertyDtos.CreateUnitRequest request) {
         logger.info("Creating unit: {}", request.unitNumber);
+        propertyDeletes.checkBuildingNotDeleting(request.buildingId);
         try {
             Building building = getBuildingById(request.buildingId);
             
@@ -291,6 +303,8 @@ public class PropertyService {
             }
             
             BuildingUnit savedUnit = unitRepo.save(unit);
+            unitSearch.refreshUnit(savedUnit.getId());
+            changeFeed.record(EntityType.UNIT, Op.CREATED, savedUnit.getId(), PropertyDtos.UnitResponse.fromEntity(savedUnit));
             logger.info("Unit created successfully with ID: {}", savedUnit.getId());
             return savedUnit;
         } catch (Exception e) {
@@ -301,8 +315,10 @@ public class PropertyService {
 
     public BuildingUnit updateUnit(UUID id, PropertyDtos.CreateUnitRequest request) {
         logger.info("Updating unit with ID: {}", id);
+        propertyDeletes.checkBuildingNotDeleting(request.buildingId);
         try {
-            BuildingUnit unit = getUnitById(id);
+            BuildingUnit unit = lockUnitById(id);
+            UnitState before = UnitState.of(unit);
             unit.setUnitNumber(request.unitNumber);
             unit.setType(BuildingUnit.UnitType.valueOf(request.type));
             unit.setFloor(request.floor);
@@ -324,6 +340,9 @@ public class PropertyService {
             }
             
             BuildingUnit updatedUnit = unitRepo.save(unit);
+            unitSearch.refreshUnit(updatedUnit.getId());
+            changeFeed.record(EntityType.UNIT, Op.UPDATED, updatedUnit.getId(), PropertyDtos.UnitResponse.fromEntity(updatedUnit));
+            publishIfChanged(before, updatedUnit);
             logger.info("Unit updated successfully");
             return updatedUnit;
         } catch (Exception e) {
@@ -333,11 +352,29 @@ public class PropertyService {
     }
 
     public BuildingUnit updateUnitStatus(UUID id, String status) {
+        return updateUnitStatus(id, status, null);
+    }
+
+    public BuildingUnit updateUnitStatus(UUID id, String status, UUID agentId) {
         logger.info("Updating unit status for ID: {} to {}", id, status);
         try {
-            BuildingUnit unit = getUnitById(id);
+            // Locked, so a concurrent change can't also see the unit open
+            BuildingUnit unit = lockUnitById(id);
+            BuildingUnit.Status previous = unit.getStatus();
+            UnitState before = UnitState.of(unit);
             unit.setStatus(BuildingUnit.Status.valueOf(status));
             BuildingUnit updatedUnit = unitRepo.save(unit);
+            unitSearch.refreshUnit(updatedUnit.getId());
+            changeFeed.record(EntityType.UNIT, Op.UPDATED, updatedUnit.getId(), PropertyDtos.UnitResponse.fromEntity(updatedUnit));
+            publishIfChanged(before, updatedUnit);
+
+            // Commission is recorded asynchronously once this transaction commits
+            if (agentId != null && previous != unit.getStatus() && unit.getStatus().isClosedSale()) {
+                if (!userRepo.existsById(agentId)) {
+                    throw new ResourceNotFoundException("User not found with ID: " + agentId);
+                }
+                eventPublisher.publishEvent(new CommissionService.SaleClosedEvent(agentId, unit, null));
+            }
             logger.info("Unit status updated successfully");
             return updatedUnit;
         } catch (Exception e) {
@@ -346,13 +383,31 @@ public class PropertyService {
         }
     }
 
+    // The fields live unit streams care about
+    private record UnitState(BuildingUnit.Status status, Double price, UUID ownerId) {
+        static UnitState of(BuildingUnit unit) {
+            return new UnitState(unit.getStatus(), unit.getPrice(), unit.getOwner() != null ? unit.getOwner().getId() : null);
+        }
+    }
+
+    // Streamed to subscribers once the transaction commits
+    private void publishIfChanged(UnitState before, BuildingUnit unit) {
+        if (!before.equals(UnitState.of(unit))) {
+            eventPublisher.publishEvent(new UnitStreamService.UnitChangedEvent(PropertyDtos.UnitChange.fromEntity(unit)));
+        }
+    }
+
     public BuildingUnit assignUnitOwner(UUID unitId, UUID ownerId) {
         logger.info("Assigning owner {} to unit {}", ownerId, unitId);
         try {
             BuildingUnit unit = getUnitById(unitId);
             Owner owner = getOwnerById(ownerId);
+            UnitState before = UnitState.of(unit);
             unit.setOwner(owner);
             BuildingUnit updatedUnit = unitRepo.save(unit);
+            unitSearch.refreshUnit(updatedUnit.getId());
+            changeFeed.record(EntityType.UNIT, Op.UPDATED, updatedUnit.getId(), PropertyDtos.UnitResponse.fromEntity(updatedUnit));
+            publishIfChanged(before, updatedUnit);
             logger.info("Owner assigned successfully");
             return updatedUnit;
         } catch (Exception e) {
@@ -367,6 +422,7 @@ public class PropertyService {
             if (!unitRepo.existsById(id)) {
                 throw new ResourceNotFoundException("Building unit not found with ID: " + id);
             }
+            changeFeed.record(EntityType.UNIT, Op.DELETED, id, null);
             unitRepo.deleteById(id);
             logger.info("Unit deleted successfully");
         } catch (Exception e) {
@@ -376,6 +432,7 @@ public class PropertyService {
     }
 
     // === OWNER METHODS ===
+    @Transactional(readOnly = true)
     public List<Owner> getAllOwners() {
         try {
             return ownerRepo.findAll();
@@ -385,6 +442,13 @@ public class PropertyService {
         }
     }
 
+    // Sparse fieldsets (?fields=)
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getOwnerFields(String fields) {
+        return projections.select(Owner.class, PropertyDtos.OwnerResponse.FIELDS, fields, null);
+    }
+
+    @Transactional(readOnly = true)
     public Owner getOwnerById(UUID id) {
         return ownerRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Owner not found with ID: " + id));
@@ -403,6 +467,7 @@ public class PropertyService {
             owner.setNotes(request.notes);
             
             Owner savedOwner = ownerRepo.save(owner);
+            changeFeed.record(EntityType.OWNER, Op.CREATED, savedOwner.getId(), PropertyDtos.OwnerResponse.fromEntity(savedOwner));
             logger.info("Owner created successfully with ID: {}", savedOwner.getId());
             return savedOwner;
         } catch (Exception e) {
@@ -424,6 +489,8 @@ public class PropertyService {
             owner.setNotes(request.notes);
             
             Owner updatedOwner = ownerRepo.save(owner);
+            unitSearch.refreshOwner(id);
+            changeFeed.record(EntityType.OWNER, Op.UPDATED, id, PropertyDtos.OwnerResponse.fromEntity(updatedOwner));
             logger.info("Owner updated successfully");
             return updatedOwner;
         } catch (Exception e) {
@@ -438,6 +505,7 @@ public class PropertyService {
             if (!ownerRepo.existsById(id)) {
                 throw new ResourceNotFoundException("Owner not found with ID: " + id);
             }
+            changeFeed.record(EntityType.OWNER, Op.DELETED, id, null);
             ownerRepo.deleteById(id);
             logger.info("Owner deleted successfully");
         } catch (Exception e) {
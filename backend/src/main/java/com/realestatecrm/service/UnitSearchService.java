@@ -0,0 +1,283 @@
+package com.realestatecrm.service;
+
+import com.realestatecrm.dto.PropertyDtos;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps the {@code unit_search} read model (V10) in step with the normalised property tables.
+ * {@link PropertyService} calls the {@code refresh*} methods inside its own write transaction, so
+ * the projection commits or rolls back with the change that caused it; deletes are covered by the
+ * cascading foreign key. {@link #check()} detects and {@link #rebuild()} repairs drift from writes that
+ * bypassed the service (manual SQL, bulk loads).
+ */
+@Service
+public class UnitSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(UnitSearchService.class);
+
+    // The single place the projection is defined; %s narrows it to the rows a write touched
+    private static final String PROJECTION_SQL =
+            "SELECT u.id AS unit_id, u.unit_number, u.type, u.status, u.floor, u.area_sqm, u.parking_slots, u.price, " +
+            "       b.id AS building_id, b.name AS building_name, s.id AS site_id, s.name AS site_name, " +
+            "       s.city, s.country, o.id AS owner_id, o.name AS owner_name, u.created_at AS unit_created_at " +
+            "FROM building_units u " +
+            "LEFT JOIN buildings b ON b.id = u.building_id " +
+            "LEFT JOIN sites s ON s.id = b.site_id " +
+            "LEFT JOIN owners o ON o.id = u.owner_id " +
+            "WHERE %s";
+
+    private static final String COLUMNS =
+            "unit_number, type, status, floor, area_sqm, parking_slots, price, building_id, building_name, " +
+            "site_id, site_name, city, country, owner_id, owner_name, unit_created_at";
+
+    // Upserts the projection, leaving rows that already match untouched so a rebuild only
+    // rewrites what drifted
+    private static final String UPSERT_SQL =
+            "INSERT INTO unit_search AS t (unit_id, " + COLUMNS + ") " +
+            PROJECTION_SQL + " " +
+            "ON CONFLICT (unit_id) DO UPDATE SET " +
+            "  unit_number = EXCLUDED.unit_number, type = EXCLUDED.type, status = EXCLUDED.status, " +
+            "  floor = EXCLUDED.floor, area_sqm = EXCLUDED.area_sqm, parking_slots = EXCLUDED.parking_slots, " +
+            "  price = EXCLUDED.price, building_id = EXCLUDED.building_id, building_name = EXCLUDED.building_name, " +
+            "  site_id = EXCLUDED.site_id, site_name = EXCLUDED.site_name, city = EXCLUDED.city, " +
+            "  country = EXCLUDED.country, owner_id = EXCLUDED.owner_id, owner_name = EXCLUDED.owner_name, " +
+            "  unit_created_at = EXCLUDED.unit_created_at, updated_at = now() " +
+            "WHERE (t." + COLUMNS.replace(", ", ", t.") + ") " +
+            "  IS DISTINCT FROM (EXCLUDED." + COLUMNS.replace(", ", ", EXCLUDED.") + ")";
+
+    // Missing rows have no unit_search match; stale rows differ in any projected column
+    private static final String CHECK_SQL =
+            "SELECT count(*) FILTER (WHERE t.unit_id IS NULL) AS missing, " +
+            "       count(*) FILTER (WHERE t.unit_id IS NOT NULL AND (p." + COLUMNS.replace(", ", ", p.") + ") " +
+            "                        IS DISTINCT FROM (t." + COLUMNS.replace(", ", ", t.") + ")) AS stale, " +
+            "       count(*) AS units " +
+            "FROM (" + String.format(PROJECTION_SQL, "TRUE") + ") p " +
+            "LEFT JOIN unit_search t ON t.unit_id = p.unit_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public UnitSearchService(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Filters for {@link #search}; every field is optional.
+     */
+    public static class SearchFilter {
+        public String q;
+        public String status;
+        public String type;
+        public String city;
+        public UUID siteId;
+        public UUID buildingId;
+        public UUID ownerId;
+        public Double minPrice;
+        public Double maxPrice;
+        public int limit = 50;
+        public int offset = 0;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshUnit(UUID unitId) {
+        refresh("u.id = ?", unitId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshBuilding(UUID buildingId) {
+        refresh("u.building_id = ?", buildingId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshSite(UUID siteId) {
+        refresh("b.site_id = ?", siteId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshOwner(UUID ownerId) {
+        refresh("u.owner_id = ?", ownerId);
+    }
+
+    private void refresh(String scope, UUID id) {
+        // The projection reads the tables, so pending entity changes must reach them first
+        entityManager.flush();
+        int rows = jdbcTemplate.update(String.format(UPSERT_SQL, scope), id);
+        logger.debug("unit_search refreshed {} row(s) for {} {}", rows, scope, id);
+    }
+
+    /**
+     * Re-projects every unit and removes rows whose unit no longer exists.
+     */
+    @Transactional
+    public PropertyDtos.UnitSearchCheckResult rebuild() {
+        logger.info("Rebuilding unit_search");
+        long started = System.currentTimeMillis();
+        try {
+            int upserted = jdbcTemplate.update(String.format(UPSERT_SQL, "TRUE"));
+            int removed = jdbcTemplate.update(
+                    "DELETE FROM unit_search t WHERE NOT EXISTS (SELECT 1 FROM building_units u WHERE u.id = t.unit_id)");
+            PropertyDtos.UnitSearchCheckResult result = compare();
+            result.repaired = upserted + removed;
+            result.durationMs = System.currentTimeMillis() - started;
+            logger.info("unit_search rebuilt: rewrote {} row(s), removed {} in {}ms", upserted, removed, result.durationMs);
+            return result;
+        } catch (Exception e) {
+            logger.error("Error rebuilding unit_search: {}", e.getMessage());
+            throw new RuntimeException("Failed to rebuild unit search: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compares {@code unit_search} with a fresh projection of the source tables.
+     */
+    @Transactional(readOnly = true)
+    public PropertyDtos.UnitSearchCheckResult check() {
+        long started = System.currentTimeMillis();
+        PropertyDtos.UnitSearchCheckResult result = compare();
+        result.durationMs = System.currentTimeMillis() - started;
+        if (!result.consistent) {
+            logger.warn("unit_search drift: missing={}, stale={}, orphaned={}", result.missing, result.stale, result.orphaned);
+        }
+        return result;
+    }
+
+    private PropertyDtos.UnitSearchCheckResult compare() {
+        PropertyDtos.UnitSearchCheckResult result = jdbcTemplate.queryForObject(CHECK_SQL, (rs, i) -> {
+            PropertyDtos.UnitSearchCheckResult r = new PropertyDtos.UnitSearchCheckResult();
+            r.units = rs.getLong("units");
+            r.missing = rs.getLong("missing");
+            r.stale = rs.getLong("stale");
+            return r;
+        });
+        result.orphaned = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM unit_search t WHERE NOT EXISTS (SELECT 1 FROM building_units u WHERE u.id = t.unit_id)",
+                Long.class);
+        result.consistent = result.missing + result.stale + result.orphaned == 0;
+        return result;
+    }
+
+    /**
+     * GET /units: every unit, or those matching the first of status, type or building given, in the
+     * full UnitResponse shape. A single-table read of the projection, so no per-unit lookups of the
+     * building or owner.
+     */
+    @Transactional(readOnly = true)
+    public List<PropertyDtos.UnitResponse> list(String status, String type, UUID buildingId) {
+        String sql = "SELECT unit_id, unit_number, type, floor, area_sqm, parking_slots, price, status, " +
+                "building_id, building_name, owner_id, owner_name, unit_created_at FROM unit_search";
+        Object[] args;
+        if (status != null) {
+            sql += " WHERE status = ?";
+            args = new Object[] {status};
+        } else if (type != null) {
+            sql += " WHERE type = ?";
+            args = new Object[] {type};
+        } else if (buildingId != null) {
+            sql += " WHERE building_id = ?";
+            args = new Object[] {buildingId};
+        } else {
+            args = new Object[0];
+        }
+        return jdbcTemplate.query(sql, (rs, i) -> {
+            PropertyDtos.UnitResponse r = new PropertyDtos.UnitResponse();
+            r.id = rs.getObject("unit_id", UUID.class);
+            r.unitNumber = rs.getString("unit_number");
+            r.type = rs.getString("type");
+            r.floor = (Integer) rs.getObject("floor");
+            r.areaSqm = (Double) rs.getObject("area_sqm");
+            r.parkingSlots = (Integer) rs.getObject("parking_slots");
+            r.price = (Double) rs.getObject("price");
+            r.status = rs.getString("status");
+            r.buildingId = rs.getObject("building_id", UUID.class);
+            r.buildingName = rs.getString("building_name");
+            r.ownerId = rs.getObject("owner_id", UUID.class);
+            r.ownerName = rs.getString("owner_name");
+            Timestamp created = rs.getTimestamp("unit_created_at");
+            r.createdAt = created != null ? created.toInstant().toString() : null;
+            return r;
+        }, args);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PropertyDtos.UnitSearchResult> search(SearchFilter filter) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM unit_search WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (filter.q != null && !filter.q.isBlank()) {
+            sql.append(" AND search_text LIKE ?");
+            args.add("%" + escapeLike(filter.q.trim().toLowerCase()) + "%");
+        }
+        if (filter.status != null) {
+            sql.append(" AND status = ?");
+            args.add(filter.status);
+        }
+        if (filter.type != null) {
+            sql.append(" AND type = ?");
+            args.add(filter.type);
+        }
+        if (filter.city != null) {
+            sql.append(" AND lower(city) = ?");
+            args.add(filter.city.trim().toLowerCase());
+        }
+        if (filter.siteId != null) {
+            sql.append(" AND site_id = ?");
+            args.add(filter.siteId);
+        }
+        if (filter.buildingId != null) {
+            sql.append(" AND building_id = ?");
+            args.add(filter.buildingId);
+        }
+        if (filter.ownerId != null) {
+            sql.append(" AND owner_id = ?");
+            args.add(filter.ownerId);
+        }
+        if (filter.minPrice != null) {
+            sql.append(" AND price >= ?");
+            args.add(filter.minPrice);
+        }
+        if (filter.maxPrice != null) {
+            sql.append(" AND price <= ?");
+            args.add(filter.maxPrice);
+        }
+        sql.append(" ORDER BY price, unit_id LIMIT ? OFFSET ?");
+        args.add(Math.max(1, Math.min(filter.limit, 500)));
+        args.add(Math.max(0, filter.offset));
+
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> {
+            PropertyDtos.UnitSearchResult r = new PropertyDtos.UnitSearchResult();
+            r.id = rs.getObject("unit_id", UUID.class);
+            r.unitNumber = rs.getString("unit_number");
+            r.type = rs.getString("type");
+            r.status = rs.getString("status");
+            r.floor = (Integer) rs.getObject("floor");
+            r.areaSqm = (Double) rs.getObject("area_sqm");
+            r.parkingSlots = (Integer) rs.getObject("parking_slots");
+            r.price = (Double) rs.getObject("price");
+            r.buildingId = rs.getObject("building_id", UUID.class);
+            r.buildingName = rs.getString("building_name");
+            r.siteId = rs.getObject("site_id", UUID.class);
+            r.siteName = rs.getString("site_name");
+            r.city = rs.getString("city");
+            r.country = rs.getString("country");
+            r.ownerId = rs.getObject("owner_id", UUID.class);
+            r.ownerName = rs.getString("owner_name");
+            Timestamp created = rs.getTimestamp("unit_created_at");
+            r.createdAt = created != null ? created.toInstant().toString() : null;
+            return r;
+        }, args.toArray());
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
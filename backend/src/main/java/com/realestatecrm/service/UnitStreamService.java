@@ -0,0 +1,295 @@
+package com.realestatecrm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestatecrm.dto.PropertyDtos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live unit status/price/owner changes over Server-Sent Events. {@link PropertyService} publishes a
+ * {@link UnitChangedEvent}; once its transaction commits the change is encoded once as an SSE frame
+ * and offered to every matching subscriber's small bounded queue. A shared sender pool drains the
+ * queues with non-blocking servlet writes: a sender writes only while the connection reports it is
+ * ready and otherwise moves on, resuming when the container calls back. A client that stops reading
+ * therefore never holds a sender thread; its queue fills, it is disconnected, and it reconnects and
+ * refetches. An idle connection holds no thread, and nothing here touches the database.
+ */
+@Service
+public class UnitStreamService {
+    private static final Logger logger = LoggerFactory.getLogger(UnitStreamService.class);
+
+    // Queued item: one encoded SSE frame, shared by every subscriber it is offered to
+    private record Message(byte[] frame) {}
+
+    private static final Message HEARTBEAT = new Message(": heartbeat\n\n".getBytes(StandardCharsets.UTF_8));
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Connected or connecting clients; a slot is reserved before subscribing so concurrent
+    // subscribes can't pass the limit together
+    private final AtomicInteger clients = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final ObjectMapper objectMapper;
+    private final ExecutorService sender;
+    private final Counter evictions;
+    private final int bufferSize;
+    private final int maxClients;
+    private final long timeoutMs;
+
+    public UnitStreamService(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${units.stream.buffer-size:32}") int bufferSize,
+                             @Value("${units.stream.max-clients:5000}") int maxClients,
+                             @Value("${units.stream.timeout-ms:1800000}") long timeoutMs,
+                             @Value("${units.stream.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxClients = maxClients;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger count = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "unit-stream-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.evictions = meterRegistry.counter("units.stream.evicted");
+        meterRegistry.gauge("units.stream.clients", subscribers, Set::size);
+    }
+
+    /**
+     * Published by {@link PropertyService} when a unit's status, price or owner changes.
+     */
+    public static class UnitChangedEvent {
+        public final PropertyDtos.UnitChange change;
+
+        public UnitChangedEvent(PropertyDtos.UnitChange change) {
+            this.change = change;
+        }
+    }
+
+    private final class Subscriber {
+        final AsyncContext async;
+        final ServletOutputStream out;
+        final UUID buildingId;
+        final UUID siteId;
+        final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        // Set by the container when a write that could not complete has finished
+        final AtomicBoolean writePossible = new AtomicBoolean();
+
+        Subscriber(AsyncContext async, ServletOutputStream out, UUID buildingId, UUID siteId) {
+            this.async = async;
+            this.out = out;
+            this.buildingId = buildingId;
+            this.siteId = siteId;
+        }
+
+        boolean matches(PropertyDtos.UnitChange change) {
+            return (buildingId == null || buildingId.equals(change.buildingId))
+                    && (siteId == null || siteId.equals(change.siteId));
+        }
+    }
+
+    /**
+     * Turns the request into a stream of changes, optionally limited to one building and/or site.
+     *
+     * @throws IllegalStateException when {@code units.stream.max-clients} are already connected
+     */
+    public void subscribe(HttpServletRequest request, HttpServletResponse response, UUID buildingId, UUID siteId)
+            throws IOException {
+        if (clients.incrementAndGet() > maxClients) {
+            clients.decrementAndGet();
+            throw new IllegalStateException("Too many unit stream clients");
+        }
+        Subscriber subscriber;
+        try {
+            subscriber = open(request, response, buildingId, siteId);
+        } catch (IOException | RuntimeException e) {
+            clients.decrementAndGet();
+            throw e;
+        }
+        // The slot is now freed when the subscriber is removed
+        subscribers.add(subscriber);
+        // From here on writes are non-blocking
+        subscriber.out.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() {
+                subscriber.writePossible.set(true);
+                schedule(subscriber);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                close(subscriber);
+            }
+        });
+        logger.debug("Unit stream opened: buildingId={}, siteId={}, clients={}", buildingId, siteId, subscribers.size());
+    }
+
+    // Starts the async response; the subscriber is not registered yet
+    private Subscriber open(HttpServletRequest request, HttpServletResponse response, UUID buildingId, UUID siteId)
+            throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // Commits the headers while writes are still blocking, so the client knows the stream is open
+        response.flushBuffer();
+
+        AsyncContext async = request.startAsync(request, response);
+        async.setTimeout(timeoutMs);
+        Subscriber subscriber = new Subscriber(async, response.getOutputStream(), buildingId, siteId);
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                remove(subscriber);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                close(subscriber);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                close(subscriber);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        return subscriber;
+    }
+
+    @TransactionalEventListener
+    public void onUnitChanged(UnitChangedEvent event) {
+        if (subscribers.isEmpty()) return;
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event.change);
+        } catch (JsonProcessingException e) {
+            logger.error("Cannot serialise unit change {}", event.change.unitId, e);
+            return;
+        }
+        // The JSON is a single line, so it fits one data field
+        String frame = "event: unit\nid: " + eventIds.incrementAndGet() + "\ndata: " + data + "\n\n";
+        Message message = new Message(frame.getBytes(StandardCharsets.UTF_8));
+        for (Subscriber s : subscribers) {
+            if (s.matches(event.change)) enqueue(s, message);
+        }
+    }
+
+    // Keeps proxies from closing idle streams and finds clients that went away
+    @Scheduled(fixedRateString = "${units.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber s : subscribers) {
+            enqueue(s, HEARTBEAT);
+        }
+    }
+
+    private void enqueue(Subscriber s, Message message) {
+        if (!s.queue.offer(message)) {
+            evict(s);
+            return;
+        }
+        schedule(s);
+    }
+
+    private void schedule(Subscriber s) {
+        if (s.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(s));
+        }
+    }
+
+    private void drain(Subscriber s) {
+        s.writePossible.set(false);
+        boolean blocked = false;
+        try {
+            while (true) {
+                // When not ready the container calls onWritePossible once the pending write is done
+                if (!s.out.isReady()) {
+                    blocked = true;
+                    break;
+                }
+                Message m = s.queue.poll();
+                if (m == null) {
+                    s.out.flush();
+                    break;
+                }
+                s.out.write(m.frame());
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected, or the stream already completed
+            close(s);
+        } finally {
+            s.draining.set(false);
+            // Work that arrived after the last check: queued messages while still writable, or a
+            // write-possible callback that found this drain running
+            boolean more = s.writePossible.get() || (!blocked && !s.queue.isEmpty());
+            if (more && subscribers.contains(s)) schedule(s);
+        }
+    }
+
+    private void evict(Subscriber s) {
+        if (subscribers.contains(s)) {
+            evictions.increment();
+            logger.info("Evicted slow unit stream client (buffer of {} full)", bufferSize);
+            close(s);
+        }
+    }
+
+    // Ends the response; the container closes the connection without any sender thread waiting on it
+    private void close(Subscriber s) {
+        if (remove(s)) {
+            s.queue.clear();
+            try {
+                s.async.complete();
+            } catch (IllegalStateException e) {
+                // Already completed or timed out
+            }
+        }
+    }
+
+    // Frees the subscriber's slot, once
+    private boolean remove(Subscriber s) {
+        if (!subscribers.remove(s)) return false;
+        clients.decrementAndGet();
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber s : subscribers) {
+            close(s);
+        }
+        sender.shutdownNow();
+    }
+}
@@ -1,6 +1,7 @@
 package com.realestatecrm.util;
 
 import com.realestatecrm.config.JwtProvider;
+import com.realestatecrm.config.ServerTiming;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -48,19 +49,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
         
+        long start = System.nanoTime();
         try {
             username = jwtProvider.extractUsername(jwt);
         } catch (Exception e) {
+            ServerTiming.addJwt(System.nanoTime() - start);
             // If token is invalid, continue without authentication
             logger.debug("Invalid JWT token: " + e.getMessage());
             filterChain.doFilter(request, response);
             return;
         }
+        ServerTiming.addJwt(System.nanoTime() - start);
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            start = System.nanoTime();
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            ServerTiming.addUserLookup(System.nanoTime() - start);
 
-            if (jwtProvider.isTokenValid(jwt, userDetails)) {
+            start = System.nanoTime();
+            boolean valid = jwtProvider.isTokenValid(jwt, userDetails);
+            ServerTiming.addJwt(System.nanoTime() - start);
+            if (valid) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -0,0 +1,65 @@
+package com.realestatecrm.util;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback turbo filter that keeps only a fraction ({@code rate}) of INFO and lower events from the
+ * configured logger name prefixes. WARN and ERROR always pass, as does everything from other
+ * loggers. Runs before the event is built, so a dropped line costs no formatting or I/O.
+ * The decision is made once per request: LogSamplingRequestFilter rolls for each request and
+ * every line of that request compares the same roll against the rate, so a request's lines are
+ * kept or dropped together. Off request threads each line rolls for itself. Configured from
+ * logback-spring.xml.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    private static final ThreadLocal<Double> REQUEST_ROLL = new ThreadLocal<>();
+
+    private String[] prefixes = new String[0];
+    private double rate = 1.0;
+
+    // Comma-separated logger name prefixes
+    public void setLoggers(String loggers) {
+        this.prefixes = loggers == null ? new String[0] : Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    public void setRate(double rate) {
+        this.rate = Math.max(0.0, Math.min(1.0, rate));
+    }
+
+    /** Rolls once for the request on this thread; pair with {@link #endRequest()}. */
+    public static void beginRequest() {
+        REQUEST_ROLL.set(ThreadLocalRandom.current().nextDouble());
+    }
+
+    public static void endRequest() {
+        REQUEST_ROLL.remove();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (rate >= 1.0 || level == null || level.isGreaterOrEqual(Level.WARN) || !sampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        Double roll = REQUEST_ROLL.get();
+        double value = roll != null ? roll : ThreadLocalRandom.current().nextDouble();
+        return value < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean sampled(String name) {
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+}
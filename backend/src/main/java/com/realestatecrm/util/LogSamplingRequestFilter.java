@@ -0,0 +1,33 @@
+package com.realestatecrm.util;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Makes the {@link LogSamplingFilter} decision once per request: rolls when the request starts,
+ * so every sampled log line of the request is kept or dropped together, and clears the roll when
+ * it ends. Runs first so the filters after it are covered too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LogSamplingRequestFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LogSamplingFilter.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            LogSamplingFilter.endRequest();
+        }
+    }
+}
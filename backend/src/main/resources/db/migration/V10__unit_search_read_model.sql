@@ -0,0 +1,51 @@
+-- Denormalised read model for unit listing/search: one row per unit with its building, site
+-- and owner display columns, so the UI never joins four tables per request. Maintained by
+-- UnitSearchService in the same transaction as every PropertyService write; rows disappear with
+-- their unit through the cascading foreign key.
+
+-- Declared by the entity but not by V1; the projection below reads it
+ALTER TABLE building_units ADD COLUMN IF NOT EXISTS created_at timestamptz DEFAULT now();
+
+CREATE TABLE IF NOT EXISTS unit_search (
+  unit_id uuid PRIMARY KEY REFERENCES building_units(id) ON DELETE CASCADE,
+  unit_number varchar(100),
+  type varchar(50),
+  status varchar(50),
+  floor integer,
+  area_sqm double precision,
+  parking_slots integer,
+  price double precision,
+  building_id uuid,
+  building_name varchar(255),
+  site_id uuid,
+  site_name varchar(255),
+  city varchar(100),
+  country varchar(100),
+  owner_id uuid,
+  owner_name varchar(255),
+  unit_created_at timestamptz,
+  updated_at timestamptz NOT NULL DEFAULT now(),
+  search_text text GENERATED ALWAYS AS (
+    lower(coalesce(unit_number, '') || ' ' || coalesce(building_name, '') || ' ' ||
+          coalesce(site_name, '') || ' ' || coalesce(city, '') || ' ' || coalesce(owner_name, ''))
+  ) STORED
+);
+
+CREATE INDEX IF NOT EXISTS idx_unit_search_status_price ON unit_search (status, price);
+CREATE INDEX IF NOT EXISTS idx_unit_search_type_price ON unit_search (type, price);
+CREATE INDEX IF NOT EXISTS idx_unit_search_city ON unit_search (lower(city));
+CREATE INDEX IF NOT EXISTS idx_unit_search_site_id ON unit_search (site_id);
+CREATE INDEX IF NOT EXISTS idx_unit_search_building_id ON unit_search (building_id);
+CREATE INDEX IF NOT EXISTS idx_unit_search_owner_id ON unit_search (owner_id);
+CREATE INDEX IF NOT EXISTS idx_unit_search_text_trgm ON unit_search USING gin (search_text gin_trgm_ops);
+
+INSERT INTO unit_search (unit_id, unit_number, type, status, floor, area_sqm, parking_slots, price,
+                         building_id, building_name, site_id, site_name, city, country,
+                         owner_id, owner_name, unit_created_at)
+SELECT u.id, u.unit_number, u.type, u.status, u.floor, u.area_sqm, u.parking_slots, u.price,
+       b.id, b.name, s.id, s.name, s.city, s.country, o.id, o.name, u.created_at
+FROM building_units u
+LEFT JOIN buildings b ON b.id = u.building_id
+LEFT JOIN sites s ON s.id = b.site_id
+LEFT JOIN owners o ON o.id = u.owner_id
+ON CONFLICT (unit_id) DO NOTHING;
@@ -0,0 +1,29 @@
+-- Transactional outbox behind GET /api/v1/changes. Every PropertyService/LeadService write adds
+-- rows here in its own transaction. Rows are read in (txid, seq) order and only once their
+-- transaction is older than every running one (txid < pg_snapshot_xmin), so a transaction that
+-- commits late can never land behind a cursor a client already holds.
+
+CREATE TABLE IF NOT EXISTS change_events (
+  seq bigserial PRIMARY KEY,
+  txid xid8 NOT NULL DEFAULT pg_current_xact_id(),
+  entity_type varchar(20) NOT NULL,
+  entity_id uuid NOT NULL,
+  op varchar(10) NOT NULL,
+  payload jsonb,
+  created_at timestamptz NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_change_events_txid_seq ON change_events (txid, seq);
+-- Compaction looks for a later event of the same entity
+CREATE INDEX IF NOT EXISTS idx_change_events_entity ON change_events (entity_type, entity_id, txid, seq);
+CREATE INDEX IF NOT EXISTS idx_change_events_created_at ON change_events (created_at);
+
+-- Highest position removed by retention; cursors below it get 410 Gone
+CREATE TABLE IF NOT EXISTS change_feed_horizon (
+  id integer PRIMARY KEY CHECK (id = 1),
+  txid xid8 NOT NULL,
+  seq bigint NOT NULL,
+  updated_at timestamptz NOT NULL DEFAULT now()
+);
+
+INSERT INTO change_feed_horizon (id, txid, seq) VALUES (1, '0', 0) ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,26 @@
+-- Closed sales waiting for their commission. A row is written in the same transaction as the
+-- status change that closed the sale and deleted in the transaction that inserts the commission,
+-- so a sale is never lost between the two; rows that fail stay here and are retried with backoff.
+CREATE TABLE IF NOT EXISTS commission_outbox (
+  sale_id uuid PRIMARY KEY,
+  user_id uuid NOT NULL,
+  unit_id uuid,
+  lead_id uuid,
+  unit_number varchar(100),
+  price double precision,
+  closed_at timestamptz NOT NULL,
+  attempts integer NOT NULL DEFAULT 0,
+  last_error text,
+  next_attempt_at timestamptz NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_commission_outbox_next_attempt_at ON commission_outbox (next_attempt_at);
+
+-- Idempotency is per sale: replays of the same outbox row insert one commission. Records from
+-- before this migration have no sale_id and are not constrained; the per-(agent, unit) index from
+-- V4 stays until V15 keys sale ids to the unit, so both paths that close a sale share one.
+ALTER TABLE commission_records ADD COLUMN IF NOT EXISTS sale_id uuid;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_commission_records_sale
+    ON commission_records (sale_id)
+    WHERE sale_id IS NOT NULL;
@@ -0,0 +1,10 @@
+-- When a lead entered its current closed status (CLOSED_WON/CLOSED_LOST), set by
+-- LeadService.updateStatus; null while open. Leaderboards credit deals by this time rather than
+-- updated_at, which any later edit of a closed lead moves.
+ALTER TABLE leads ADD COLUMN IF NOT EXISTS closed_at timestamptz;
+
+-- Leads closed before this column existed: updated_at is the best estimate available
+UPDATE leads SET closed_at = updated_at
+WHERE status IN ('CLOSED_WON', 'CLOSED_LOST') AND closed_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_leads_won_closed_at ON leads (closed_at) WHERE status = 'CLOSED_WON';
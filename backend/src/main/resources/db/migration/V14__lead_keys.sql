@@ -0,0 +1,51 @@
+-- Since V9 the leads primary key is (id, created_at): Postgres requires the partition key in
+-- every unique constraint on a partitioned table, so on its own it only makes id unique within
+-- one created_at, and a lookup by id alone has to probe the index of every monthly partition.
+-- lead_keys maps each lead id to its created_at. Its primary key makes lead ids globally unique
+-- again (the insert trigger fails on a duplicate id, whatever its created_at), and lookups by id
+-- read created_at here first so only the one partition holding the lead is scanned
+-- (LeadRepository.findById). The cost is one extra index insert per lead.
+CREATE TABLE IF NOT EXISTS lead_keys (
+  id uuid PRIMARY KEY,
+  created_at timestamptz NOT NULL
+);
+
+INSERT INTO lead_keys (id, created_at)
+SELECT id, created_at FROM leads;
+
+CREATE OR REPLACE FUNCTION lead_keys_sync() RETURNS trigger AS $$
+BEGIN
+  IF TG_OP = 'INSERT' THEN
+    INSERT INTO lead_keys (id, created_at) VALUES (NEW.id, NEW.created_at);
+  ELSIF TG_OP = 'UPDATE' THEN
+    UPDATE lead_keys SET id = NEW.id, created_at = NEW.created_at WHERE id = OLD.id;
+  ELSE
+    DELETE FROM lead_keys WHERE id = OLD.id;
+  END IF;
+  RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION lead_keys_truncate() RETURNS trigger AS $$
+BEGIN
+  TRUNCATE lead_keys;
+  RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS lead_keys_sync ON leads;
+CREATE TRIGGER lead_keys_sync
+  AFTER INSERT OR DELETE ON leads
+  FOR EACH ROW EXECUTE FUNCTION lead_keys_sync();
+
+DROP TRIGGER IF EXISTS lead_keys_sync_update ON leads;
+CREATE TRIGGER lead_keys_sync_update
+  AFTER UPDATE OF id, created_at ON leads
+  FOR EACH ROW WHEN (OLD.id IS DISTINCT FROM NEW.id OR OLD.created_at IS DISTINCT FROM NEW.created_at)
+  EXECUTE FUNCTION lead_keys_sync();
+
+-- Row triggers do not see TRUNCATE
+DROP TRIGGER IF EXISTS lead_keys_truncate ON leads;
+CREATE TRIGGER lead_keys_truncate
+  AFTER TRUNCATE ON leads
+  FOR EACH STATEMENT EXECUTE FUNCTION lead_keys_truncate();
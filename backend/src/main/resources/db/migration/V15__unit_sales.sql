@@ -0,0 +1,25 @@
+-- Numbers each unit's sales: sale_count goes up every time the unit moves into SOLD or LEASED.
+-- Commission sale ids are derived from (unit, sale number) (CommissionService.SaleClosedEvent),
+-- so closing a lead on a unit and marking the unit SOLD map to the same sale id in either order
+-- and uq_commission_records_sale keeps one commission, while a resale gets a new number.
+ALTER TABLE building_units ADD COLUMN IF NOT EXISTS sale_count integer NOT NULL DEFAULT 0;
+
+UPDATE building_units SET sale_count = 1
+WHERE status IN ('SOLD', 'LEASED') AND sale_count = 0;
+
+-- Gives the latest pre-V12 record of each sold unit the id of that sale, computed as Java's
+-- UUID.nameUUIDFromBytes does (md5, version 3, IETF variant), so the sale can't be paid again
+UPDATE commission_records c
+SET sale_id = overlay(overlay(latest.h PLACING '3' FROM 13 FOR 1)
+                      PLACING to_hex((('x' || substr(latest.h, 17, 1))::bit(4)::int & 3) | 8) FROM 17 FOR 1)::uuid
+FROM (
+  SELECT DISTINCT ON (r.unit_id) r.id, md5('unit-sale:' || r.unit_id || ':' || u.sale_count) AS h
+  FROM commission_records r
+  JOIN building_units u ON u.id = r.unit_id
+  WHERE r.sale_id IS NULL AND u.status IN ('SOLD', 'LEASED')
+  ORDER BY r.unit_id, r.issued_at DESC
+) latest
+WHERE c.id = latest.id;
+
+-- Both paths are keyed per sale now; the per-(agent, unit) guard would stop resales earning
+DROP INDEX IF EXISTS uq_commission_records_user_unit;
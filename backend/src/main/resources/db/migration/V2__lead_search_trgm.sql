@@ -0,0 +1,7 @@
+-- Trigram indexes backing GET /api/v1/leads/search (substring ILIKE and fuzzy % matching)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_leads_first_name_trgm ON leads USING gin (first_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_leads_last_name_trgm ON leads USING gin (last_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_leads_email_trgm ON leads USING gin (email gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_leads_phone_trgm ON leads USING gin (phone gin_trgm_ops);
@@ -0,0 +1,5 @@
+-- Keeps POST /api/v1/leads/claim an index probe: only unassigned, open leads are indexed,
+-- oldest first, so the claim query never walks rows other agents already own.
+CREATE INDEX IF NOT EXISTS idx_leads_unassigned_open_created_at
+    ON leads (created_at)
+    WHERE assigned_to IS NULL AND status NOT IN ('CLOSED_WON', 'CLOSED_LOST');
@@ -0,0 +1,11 @@
+-- Link commission records to the sale that produced them so the engine can stay idempotent
+ALTER TABLE commission_records
+    ADD COLUMN IF NOT EXISTS unit_id uuid,
+    ADD COLUMN IF NOT EXISTS lead_id uuid,
+    ADD COLUMN IF NOT EXISTS sale_amount numeric,
+    ADD COLUMN IF NOT EXISTS rate numeric;
+
+-- One commission per agent and unit; replays of the same sale are ignored
+CREATE UNIQUE INDEX IF NOT EXISTS uq_commission_records_user_unit
+    ON commission_records (user_id, unit_id)
+    WHERE unit_id IS NOT NULL;
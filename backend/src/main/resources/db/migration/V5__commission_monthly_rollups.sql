@@ -0,0 +1,23 @@
+-- Per-agent monthly commission totals, maintained by CommissionService in the same
+-- transaction that writes commission_records; months are UTC calendar months.
+CREATE TABLE IF NOT EXISTS commission_monthly_rollups (
+  user_id uuid NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  period_month date NOT NULL,
+  record_count bigint NOT NULL DEFAULT 0,
+  total_amount numeric NOT NULL DEFAULT 0,
+  updated_at timestamptz NOT NULL DEFAULT now(),
+  PRIMARY KEY (user_id, period_month)
+);
+
+-- Drill-down from a ledger month to its records
+CREATE INDEX IF NOT EXISTS idx_commission_records_user_issued_at ON commission_records (user_id, issued_at);
+
+INSERT INTO commission_monthly_rollups (user_id, period_month, record_count, total_amount)
+SELECT user_id,
+       date_trunc('month', issued_at AT TIME ZONE 'UTC')::date,
+       count(*),
+       coalesce(sum(amount), 0)
+FROM commission_records
+WHERE user_id IS NOT NULL
+GROUP BY 1, 2
+ON CONFLICT (user_id, period_month) DO NOTHING;
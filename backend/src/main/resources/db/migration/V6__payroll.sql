@@ -0,0 +1,29 @@
+-- Payroll runs (one row per execution, with its timing breakdown) and the per-agent results
+CREATE TABLE IF NOT EXISTS payroll_runs (
+  id uuid PRIMARY KEY DEFAULT gen_random_uuid(),
+  period_month date NOT NULL,
+  status varchar(20) NOT NULL,
+  user_count integer NOT NULL DEFAULT 0,
+  total_base numeric NOT NULL DEFAULT 0,
+  total_commission numeric NOT NULL DEFAULT 0,
+  total_pay numeric NOT NULL DEFAULT 0,
+  read_ms bigint,
+  compute_ms bigint,
+  write_ms bigint,
+  total_ms bigint,
+  error text,
+  started_at timestamptz NOT NULL DEFAULT now(),
+  finished_at timestamptz
+);
+
+CREATE INDEX IF NOT EXISTS idx_payroll_runs_period_month ON payroll_runs (period_month);
+
+CREATE TABLE IF NOT EXISTS payroll_entries (
+  run_id uuid NOT NULL REFERENCES payroll_runs(id) ON DELETE CASCADE,
+  user_id uuid NOT NULL REFERENCES users(id),
+  compensation_type varchar(30),
+  base_salary numeric NOT NULL,
+  commission numeric NOT NULL,
+  total_pay numeric NOT NULL,
+  PRIMARY KEY (run_id, user_id)
+);
@@ -0,0 +1,24 @@
+-- Indexes for the foreign keys V1 left unindexed and for the repository finders' filters.
+-- Built CONCURRENTLY so the migration can run against a live database without blocking writes;
+-- Flyway runs a script made only of such statements outside a transaction. A concurrent build
+-- that fails leaves an INVALID index behind: drop it by hand before re-running.
+-- commission_records.user_id is already served by idx_commission_records_user_issued_at (V5).
+
+-- PropertyService.getBuildingsBySite, and the ON DELETE CASCADE from sites
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_buildings_site_id ON buildings (site_id);
+
+-- BuildingUnitRepository.findByBuilding, and deleting a building
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_building_units_building_id ON building_units (building_id);
+
+-- Deleting an owner checks building_units for references
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_building_units_owner_id ON building_units (owner_id);
+
+-- BuildingUnitRepository.findByStatus / findByType
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_building_units_status ON building_units (status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_building_units_type ON building_units (type);
+
+-- Bulk reassignment from an agent, and deleting a user
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_assigned_to ON leads (assigned_to);
+
+-- UserRepository.findByEmail on user creation (username is already UNIQUE)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email ON users (email);
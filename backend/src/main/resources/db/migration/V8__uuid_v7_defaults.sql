@@ -0,0 +1,28 @@
+-- Time-ordered UUIDv7 keys (RFC 9562) for rows inserted without an id, matching what the
+-- application assigns (UuidV7Generator). Existing v4 keys stay as they are; both share the
+-- uuid columns. Uses gen_random_bytes from pgcrypto (V1).
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid AS $$
+DECLARE
+  unix_us bigint := floor(extract(epoch FROM clock_timestamp()) * 1000000);
+  -- Sub-millisecond fraction in the 12 "rand_a" bits (RFC 9562 method 3), so ids generated
+  -- within one millisecond still sort in creation order
+  sub_ms int := ((unix_us % 1000) * 4096 / 1000)::int;
+  bytes bytea := gen_random_bytes(16);
+BEGIN
+  -- 48-bit big-endian millisecond timestamp, version 7 + sub-ms fraction, variant 10
+  bytes := overlay(bytes PLACING substring(int8send(unix_us / 1000) FROM 3) FROM 1 FOR 6);
+  bytes := set_byte(bytes, 6, 112 | (sub_ms >> 8));
+  bytes := set_byte(bytes, 7, sub_ms & 255);
+  bytes := set_byte(bytes, 8, (get_byte(bytes, 8) & 63) | 128);
+  RETURN encode(bytes, 'hex')::uuid;
+END
+$$ LANGUAGE plpgsql VOLATILE;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE owners ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE sites ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE buildings ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE building_units ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE leads ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE commission_records ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE payroll_runs ALTER COLUMN id SET DEFAULT uuid_generate_v7();
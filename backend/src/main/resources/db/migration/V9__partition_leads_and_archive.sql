@@ -0,0 +1,72 @@
+-- Range-partition leads by created_at (one partition per UTC month) and add the archive that
+-- LeadArchiveService moves old closed leads into. The table is rebuilt in this transaction,
+-- so on a large database run it in a maintenance window.
+
+-- created_at becomes the partition key and part of the primary key
+UPDATE leads SET created_at = coalesce(updated_at, now()) WHERE created_at IS NULL;
+
+-- LIKE keeps any columns added to leads outside the migrations, in the same order
+ALTER TABLE leads RENAME TO leads_unpartitioned;
+CREATE TABLE leads (LIKE leads_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+ALTER TABLE leads ALTER COLUMN created_at SET NOT NULL;
+
+-- Creates missing monthly partitions from the month of from_ts through months_ahead months
+-- past the current one; returns how many were created. Also called by LeadArchiveService.
+CREATE OR REPLACE FUNCTION create_lead_partitions(from_ts timestamptz, months_ahead int) RETURNS int AS $$
+DECLARE
+  month_start date := date_trunc('month', from_ts AT TIME ZONE 'UTC')::date;
+  last_month date := (date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => months_ahead))::date;
+  created int := 0;
+  name text;
+BEGIN
+  WHILE month_start <= last_month LOOP
+    name := format('leads_y%sm%s', to_char(month_start, 'YYYY'), to_char(month_start, 'MM'));
+    IF to_regclass(name) IS NULL THEN
+      EXECUTE format('CREATE TABLE %I PARTITION OF leads FOR VALUES FROM (%L) TO (%L)', name,
+                     month_start::timestamp AT TIME ZONE 'UTC',
+                     (month_start + interval '1 month')::timestamp AT TIME ZONE 'UTC');
+      created := created + 1;
+    END IF;
+    month_start := (month_start + interval '1 month')::date;
+  END LOOP;
+  RETURN created;
+END
+$$ LANGUAGE plpgsql;
+
+SELECT create_lead_partitions(coalesce((SELECT min(created_at) FROM leads_unpartitioned), now()), 3);
+
+-- Anything outside the monthly range (e.g. far-future timestamps) still has somewhere to go
+CREATE TABLE leads_default PARTITION OF leads DEFAULT;
+
+INSERT INTO leads SELECT * FROM leads_unpartitioned;
+DROP TABLE leads_unpartitioned;
+
+ALTER TABLE leads ADD CONSTRAINT leads_pkey PRIMARY KEY (id, created_at);
+ALTER TABLE leads ADD CONSTRAINT leads_assigned_to_fkey FOREIGN KEY (assigned_to) REFERENCES users(id);
+
+-- Indexes from V2, V3 and V7, now created per partition
+CREATE INDEX idx_leads_first_name_trgm ON leads USING gin (first_name gin_trgm_ops);
+CREATE INDEX idx_leads_last_name_trgm ON leads USING gin (last_name gin_trgm_ops);
+CREATE INDEX idx_leads_email_trgm ON leads USING gin (email gin_trgm_ops);
+CREATE INDEX idx_leads_phone_trgm ON leads USING gin (phone gin_trgm_ops);
+CREATE INDEX idx_leads_unassigned_open_created_at ON leads (created_at)
+    WHERE assigned_to IS NULL AND status NOT IN ('CLOSED_WON', 'CLOSED_LOST');
+CREATE INDEX idx_leads_assigned_to ON leads (assigned_to);
+
+-- Lets the archival job find closed leads by age without scanning the open ones
+CREATE INDEX idx_leads_closed_updated_at ON leads (updated_at)
+    WHERE status IN ('CLOSED_WON', 'CLOSED_LOST');
+
+-- Archived leads, packed into jsonb batches so TOAST compresses them; lead_ids finds the
+-- batch holding a given lead
+CREATE TABLE IF NOT EXISTS leads_archive (
+  id uuid PRIMARY KEY DEFAULT uuid_generate_v7(),
+  archived_at timestamptz NOT NULL DEFAULT now(),
+  lead_count int NOT NULL,
+  oldest_created_at timestamptz,
+  newest_created_at timestamptz,
+  lead_ids uuid[] NOT NULL,
+  leads jsonb NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_leads_archive_lead_ids ON leads_archive USING gin (lead_ids);
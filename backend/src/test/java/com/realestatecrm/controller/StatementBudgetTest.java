@@ -0,0 +1,140 @@
+package com.realestatecrm.controller;
+
+import com.realestatecrm.config.JwtProvider;
+import com.realestatecrm.service.UnitSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * SQL statements per request on the read endpoints, at two dataset sizes. Each endpoint must stay
+ * within its budget and run the same number of statements at N and 2N rows; a count that grows
+ * with the data is an N+1. Counts come from the Server-Timing db phase, which SqlStatsDataSource
+ * feeds for every JDBC statement on the request thread (JPA and JdbcTemplate alike), and include
+ * the JWT filter's user lookup.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatementBudgetTest {
+
+    private static final int N = 10;
+    private static final Pattern DB_STATEMENTS = Pattern.compile("db;dur=[0-9.]+;desc=\"(\\d+) statements?\"");
+
+    // Endpoint (with {placeholders} filled from the seeded data) -> most statements it may run
+    private static final Map<String, Integer> BUDGETS = new LinkedHashMap<>();
+    static {
+        BUDGETS.put("/api/v1/properties/sites", 2);
+        BUDGETS.put("/api/v1/properties/sites/{siteId}", 2);
+        BUDGETS.put("/api/v1/properties/buildings", 2);
+        BUDGETS.put("/api/v1/properties/sites/{siteId}/buildings", 3);
+        BUDGETS.put("/api/v1/properties/units", 2);
+        BUDGETS.put("/api/v1/properties/units?status=AVAILABLE", 2);
+        BUDGETS.put("/api/v1/properties/units/{unitId}", 4);
+        BUDGETS.put("/api/v1/properties/owners", 2);
+        BUDGETS.put("/api/v1/properties/owners/{ownerId}", 2);
+        BUDGETS.put("/api/v1/leads", 2);
+        BUDGETS.put("/api/v1/leads/search?q=budget", 2);
+        BUDGETS.put("/api/v1/users", 2);
+        BUDGETS.put("/api/v1/users/{userId}", 2);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private UnitSearchService unitSearch;
+
+    @Test
+    void readEndpointsStayWithinBudgetAndDoNotGrowWithData() throws Exception {
+        Map<String, Integer> atN = measure(N);
+        Map<String, Integer> at2N = measure(2 * N);
+
+        for (Map.Entry<String, Integer> budget : BUDGETS.entrySet()) {
+            String endpoint = budget.getKey();
+            assertThat(at2N.get(endpoint))
+                    .as("statements for GET %s", endpoint)
+                    .isLessThanOrEqualTo(budget.getValue());
+            assertThat(at2N.get(endpoint))
+                    .as("statements for GET %s at %d vs %d rows", endpoint, 2 * N, N)
+                    .isEqualTo(atN.get(endpoint));
+        }
+    }
+
+    private Map<String, Integer> measure(int n) throws Exception {
+        seed(n);
+        String token = "Bearer " + jwtProvider.generateToken("budget-admin", "ADMIN");
+        Map<String, String> ids = Map.of(
+                "{siteId}", firstId("sites"),
+                "{unitId}", firstId("building_units"),
+                "{ownerId}", firstId("owners"),
+                "{userId}", firstId("users"));
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String endpoint : BUDGETS.keySet()) {
+            String uri = endpoint;
+            for (Map.Entry<String, String> id : ids.entrySet()) uri = uri.replace(id.getKey(), id.getValue());
+            MvcResult result = mockMvc.perform(get(uri).header("Authorization", token)).andReturn();
+            assertThat(result.getResponse().getStatus()).as("status of GET %s", uri).isEqualTo(200);
+            counts.put(endpoint, statements(result.getResponse().getHeader("Server-Timing")));
+        }
+        return counts;
+    }
+
+    private static int statements(String serverTiming) {
+        assertThat(serverTiming).isNotNull();
+        Matcher matcher = DB_STATEMENTS.matcher(serverTiming);
+        assertThat(matcher.find()).as("db phase in %s", serverTiming).isTrue();
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    // n sites of n buildings with 2 units each, n owners, n agents with 10 leads each
+    private void seed(int n) {
+        String database = jdbcTemplate.queryForObject("SELECT current_database()", String.class);
+        assertThat(database).as("test database").endsWith("_test");
+        jdbcTemplate.execute("TRUNCATE users, owners, sites, leads CASCADE");
+
+        jdbcTemplate.update("INSERT INTO users (username, email, role) VALUES ('budget-admin', 'budget-admin@example.com', 'ADMIN')");
+        jdbcTemplate.update("INSERT INTO users (username, email, first_name, last_name, role, compensation_type) "
+                + "SELECT 'budget-agent-' || g, 'budget-agent-' || g || '@example.com', 'Agent', 'No ' || g, 'SALES', 'COMMISSION' "
+                + "FROM generate_series(1, ?) g", n);
+        jdbcTemplate.update("INSERT INTO owners (name, email, created_at) "
+                + "SELECT 'Owner ' || g, 'owner-' || g || '@example.com', now() FROM generate_series(1, ?) g", n);
+        jdbcTemplate.update("INSERT INTO sites (name, address_line1, city, country) "
+                + "SELECT 'Site ' || g, g || ' Main St', 'Addis Ababa', 'Ethiopia' FROM generate_series(1, ?) g", n);
+        jdbcTemplate.update("INSERT INTO buildings (name, floor_count, total_area_sqm, site_id, created_at) "
+                + "SELECT s.name || ' Block ' || g, 5, 1000, s.id, now() FROM sites s, generate_series(1, ?) g", n);
+        jdbcTemplate.update("INSERT INTO building_units (unit_number, type, floor, area_sqm, parking_slots, price, status, building_id, owner_id, created_at) "
+                + "SELECT b.name || '-' || g, 'APARTMENT', g, 80, 1, 100000, 'AVAILABLE', b.id, "
+                + "(SELECT id FROM owners ORDER BY id OFFSET (abs(hashtext(b.id::text || g)) % ?) LIMIT 1), now() "
+                + "FROM buildings b, generate_series(1, 2) g", n);
+        jdbcTemplate.update("INSERT INTO leads (first_name, last_name, email, source, status, assigned_to) "
+                + "SELECT 'Budget', 'Lead ' || g, 'budget-lead-' || g || '@example.com', 'WEB', 'NEW', u.id "
+                + "FROM users u, generate_series(1, 10) g WHERE u.role = 'SALES'");
+        unitSearch.rebuild();
+    }
+
+    private String firstId(String table) {
+        return jdbcTemplate.queryForObject("SELECT id FROM " + table + " ORDER BY id LIMIT 1", UUID.class).toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.realestatecrm.service;
+
+import com.realestatecrm.dto.PropertyDtos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Children that appear while a site is being deleted: units and buildings committed by requests
+ * that got past the guard just before the job started must not make the job fail or vanish by
+ * cascade; each is deleted with its change-feed event and the site still goes.
+ */
+@SpringBootTest(properties = "properties.delete.batch-size=5")
+@ActiveProfiles("test")
+class PropertyDeleteServiceTest {
+
+    private static final int BUILDINGS = 30;
+    private static final int UNITS_PER_BUILDING = 10;
+
+    @Autowired
+    private PropertyDeleteService propertyDeletes;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void childrenAddedDuringSiteDeleteAreDeletedWithTheirEvents() throws Exception {
+        UUID siteId = jdbcTemplate.queryForObject("INSERT INTO sites (name, address_line1, city, country) "
+                + "VALUES ('Delete test', '1 Main St', 'Addis Ababa', 'Ethiopia') RETURNING id", UUID.class);
+        jdbcTemplate.update("INSERT INTO buildings (name, floor_count, total_area_sqm, site_id, created_at) "
+                + "SELECT 'Block ' || g, 5, 1000, ?, now() FROM generate_series(1, ?) g", siteId, BUILDINGS);
+        jdbcTemplate.update("INSERT INTO building_units (unit_number, type, floor, area_sqm, parking_slots, price, status, building_id, created_at) "
+                + "SELECT b.name || '-' || g, 'APARTMENT', g, 80, 1, 100000, 'AVAILABLE', b.id, now() "
+                + "FROM buildings b, generate_series(1, ?) g WHERE b.site_id = ?", UNITS_PER_BUILDING, siteId);
+        List<UUID> buildings = new ArrayList<>(jdbcTemplate.queryForList(
+                "SELECT id FROM buildings WHERE site_id = ?", UUID.class, siteId));
+        List<UUID> units = new ArrayList<>(jdbcTemplate.queryForList(
+                "SELECT u.id FROM building_units u JOIN buildings b ON b.id = u.building_id WHERE b.site_id = ?",
+                UUID.class, siteId));
+
+        PropertyDeleteService.DeleteJob job = propertyDeletes.startSiteDelete(siteId);
+        assertThatThrownBy(() -> propertyDeletes.checkSiteNotDeleting(siteId))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> propertyDeletes.checkBuildingNotDeleting(buildings.get(0)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Inserts straight into the tables, as requests already past the guard would
+        AtomicBoolean done = new AtomicBoolean();
+        CompletableFuture<Void> inserter = CompletableFuture.runAsync(() -> {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+            for (int i = 0; !done.get() && System.nanoTime() < deadline; i++) {
+                try {
+                    if (i % 10 == 0) {
+                        buildings.add(jdbcTemplate.queryForObject("INSERT INTO buildings (name, floor_count, total_area_sqm, site_id, created_at) "
+                                + "VALUES ('Late block " + i + "', 5, 1000, ?, now()) RETURNING id", UUID.class, siteId));
+                    } else {
+                        UUID building = buildings.get(ThreadLocalRandom.current().nextInt(buildings.size()));
+                        units.add(jdbcTemplate.queryForObject("INSERT INTO building_units (unit_number, type, floor, area_sqm, parking_slots, price, status, building_id, created_at) "
+                                + "VALUES ('late-" + i + "', 'APARTMENT', 1, 80, 1, 100000, 'AVAILABLE', ?, now()) RETURNING id",
+                                UUID.class, building));
+                    }
+                } catch (DataAccessException e) {
+                    // The site or building was deleted first; nothing was added
+                }
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        PropertyDtos.DeleteJobResponse result = awaitFinished(job);
+        done.set(true);
+        inserter.get(5, TimeUnit.SECONDS);
+
+        assertThat(result.status).as("job status (error: %s)", result.error).isEqualTo("COMPLETED");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM sites WHERE id = ?", Long.class, siteId)).isZero();
+        assertThat(deletedEvents("BUILDING", buildings)).containsExactlyInAnyOrderElementsOf(buildings);
+        assertThat(deletedEvents("UNIT", units)).containsExactlyInAnyOrderElementsOf(units);
+        assertThat(deletedEvents("SITE", List.of(siteId))).containsExactly(siteId);
+    }
+
+    private PropertyDtos.DeleteJobResponse awaitFinished(PropertyDeleteService.DeleteJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(job.isFinished()).as("job finished").isTrue();
+        return job.toResponse();
+    }
+
+    private Set<UUID> deletedEvents(String entityType, List<UUID> ids) {
+        return Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT DISTINCT entity_id FROM change_events WHERE entity_type = ? AND op = 'DELETED' AND entity_id = ANY (?)",
+                UUID.class, entityType, ids.toArray(new UUID[0])));
+    }
+}
@@ -0,0 +1,134 @@
+package com.realestatecrm.service;
+
+import com.realestatecrm.config.JwtProvider;
+import com.realestatecrm.dto.PropertyDtos;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Clients that stop reading must not hold up the others: with more stuck clients than sender
+ * threads, a client that keeps reading still gets every change promptly and the stuck ones are
+ * evicted once their buffers fill.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"units.stream.sender-threads=2", "units.stream.heartbeat-ms=600000"})
+@ActiveProfiles("test")
+class UnitStreamServiceTest {
+
+    private static final int STUCK_CLIENTS = 4;
+    private static final int EVENTS = 400;
+    private static final String USERNAME = "stream-test";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UnitStreamService streams;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Socket> stuck = new ArrayList<>();
+
+    @AfterEach
+    void closeStuckClients() throws IOException {
+        for (Socket socket : stuck) socket.close();
+    }
+
+    @Test
+    void stuckClientsDoNotHoldUpOtherClients() throws Exception {
+        jdbcTemplate.update("INSERT INTO users (username, email, role) VALUES (?, ?, 'ADMIN') ON CONFLICT (username) DO NOTHING",
+                USERNAME, USERNAME + "@example.com");
+        String token = jwtProvider.generateToken(USERNAME, "ADMIN");
+        double evictedBefore = meterRegistry.counter("units.stream.evicted").count();
+
+        for (int i = 0; i < STUCK_CLIENTS; i++) {
+            stuck.add(openWithoutReading(token));
+        }
+        HttpResponse<Stream<String>> healthy = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/properties/units/stream"))
+                        .header("Authorization", "Bearer " + token).build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertThat(healthy.statusCode()).isEqualTo(200);
+        awaitClients(STUCK_CLIENTS + 1);
+
+        CompletableFuture<Boolean> markerSeen = CompletableFuture.supplyAsync(
+                () -> healthy.body().anyMatch(line -> line.contains("\"unitNumber\":\"marker\"")));
+
+        // Enough data to fill the stuck clients' socket buffers many times over
+        String padding = "x".repeat(16 * 1024);
+        for (int i = 0; i < EVENTS; i++) {
+            streams.onUnitChanged(change("unit-" + i, padding));
+            Thread.sleep(2);
+        }
+        streams.onUnitChanged(change("marker", null));
+
+        assertThat(markerSeen.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.counter("units.stream.evicted").count() - evictedBefore)
+                .isGreaterThanOrEqualTo(STUCK_CLIENTS);
+    }
+
+    // Sends the request and never reads the response, with a receive buffer as small as allowed
+    private Socket openWithoutReading(String token) throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(1024);
+        socket.connect(new InetSocketAddress("localhost", port));
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /api/v1/properties/units/stream HTTP/1.1\r\n"
+                + "Host: localhost:" + port + "\r\n"
+                + "Authorization: Bearer " + token + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return socket;
+    }
+
+    private void awaitClients(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("units.stream.clients").gauge().value() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(meterRegistry.get("units.stream.clients").gauge().value()).isGreaterThanOrEqualTo(expected);
+    }
+
+    private static UnitStreamService.UnitChangedEvent change(String unitNumber, String ownerName) {
+        PropertyDtos.UnitChange change = new PropertyDtos.UnitChange();
+        change.unitId = UUID.randomUUID();
+        change.unitNumber = unitNumber;
+        change.buildingId = UUID.randomUUID();
+        change.status = "AVAILABLE";
+        change.price = 100000.0;
+        change.ownerName = ownerName;
+        change.changedAt = Instant.now().toString();
+        return new UnitStreamService.UnitChangedEvent(change);
+    }
+}
@@ -0,0 +1,236 @@
+package com.realestatecrm.datagen;
+
+import com.realestatecrm.datagen.Dataset.Table;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads a synthetic dataset (see {@link Dataset}) into a migrated database with COPY, splitting
+ * each table into {@code -streams} ranges that are copied in parallel, one connection each.
+ * Tables are loaded parent-first in three phases so foreign keys hold throughout:
+ * users/owners/sites, then buildings, then units/leads.
+ *
+ * The same options, seed and {@code -end} date give the same rows and ids, so a second run into
+ * the same database needs {@code -truncate true}. That empties the property and lead tables and
+ * removes previously generated users, so it only runs on a datagen database: one whose property
+ * and lead tables were empty when a load first started, which that load records in datagen_runs.
+ * Anywhere else it refuses rather than wipe data that did not come from here.
+ */
+public class DataGenerator {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+    static {
+        DEFAULTS.put("url", "jdbc:postgresql://localhost:5432/realestate_db");
+        DEFAULTS.put("user", "realestate");
+        DEFAULTS.put("password", "");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("users", "2000");
+        DEFAULTS.put("owners", "50000");
+        DEFAULTS.put("sites", "20000");
+        DEFAULTS.put("buildings-per-site", "5");
+        DEFAULTS.put("units-per-building", "20");
+        DEFAULTS.put("leads", "2000000");
+        DEFAULTS.put("months", "24");        // rows are spread over this many months before -end
+        DEFAULTS.put("end", "");             // yyyy-mm-dd, default today (UTC); pass it again to reproduce a run
+        DEFAULTS.put("streams", String.valueOf(Math.max(2, Runtime.getRuntime().availableProcessors())));
+        DEFAULTS.put("truncate", "false");
+    }
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    // Emptied by -truncate, together with the tables that reference them
+    private static final List<String> TRUNCATED = List.of("building_units", "buildings", "sites", "owners", "leads");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int streams = Integer.parseInt(options.get("streams"));
+        Instant end = options.get("end").isEmpty()
+                ? Instant.now().truncatedTo(ChronoUnit.DAYS)
+                : LocalDate.parse(options.get("end")).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant start = end.minus(Integer.parseInt(options.get("months")) * 30L, ChronoUnit.DAYS);
+        Dataset dataset = new Dataset(Long.parseLong(options.get("seed")),
+                Long.parseLong(options.get("users")), Long.parseLong(options.get("owners")),
+                Long.parseLong(options.get("sites")), Integer.parseInt(options.get("buildings-per-site")),
+                Integer.parseInt(options.get("units-per-building")), Long.parseLong(options.get("leads")),
+                start, end);
+
+        try (Connection conn = connect(options)) {
+            boolean datagenDatabase = isDatagenDatabase(conn);
+            if (Boolean.parseBoolean(options.get("truncate"))) {
+                if (!datagenDatabase && hasRows(conn)) {
+                    throw new IllegalStateException("Refusing -truncate: " + options.get("url") + " has property or lead "
+                            + "rows that this generator did not load (no datagen_runs table). Load into a dedicated database.");
+                }
+                truncate(conn);
+            }
+            if (datagenDatabase || !hasRows(conn)) {
+                recordRun(conn, options, end);
+            } else {
+                System.out.println("The database already has property or lead rows, so it is not marked as a datagen "
+                        + "database and -truncate will refuse it");
+            }
+            try (PreparedStatement ps = conn.prepareStatement("SELECT create_lead_partitions(?, ?)")) {
+                ps.setTimestamp(1, Timestamp.from(start));
+                ps.setInt(2, Integer.parseInt(options.get("months")) + 3);
+                ps.execute();
+            }
+        }
+
+        System.out.printf("Generating with -seed %s -end %s (%s .. %s) using %d streams%n",
+                options.get("seed"), LocalDate.ofInstant(end, ZoneOffset.UTC), start, end, streams);
+        long began = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(streams);
+        Map<Table, Span> spans = new EnumMap<>(Table.class);
+        try {
+            for (List<Table> phase : List.of(List.of(Table.USERS, Table.OWNERS, Table.SITES),
+                                             List.of(Table.BUILDINGS),
+                                             List.of(Table.UNITS, Table.LEADS))) {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (Table table : phase) {
+                    long count = dataset.count(table);
+                    Span span = spans.computeIfAbsent(table, t -> new Span());
+                    for (int s = 0; s < streams; s++) {
+                        long from = count * s / streams;
+                        long to = count * (s + 1) / streams;
+                        if (from < to) tasks.add(pool.submit(() -> copy(options, dataset, table, from, to, span)));
+                    }
+                }
+                for (Future<?> task : tasks) task.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+
+        long totalRows = 0;
+        System.out.printf("%-16s %12s %10s%n", "table", "rows", "seconds");
+        for (Table table : Table.values()) {
+            totalRows += dataset.count(table);
+            System.out.printf("%-16s %12d %10.1f%n", table.table, dataset.count(table), spans.get(table).seconds());
+        }
+        System.out.printf("%d rows in %.1f s (%.0f rows/min)%n", totalRows, seconds, totalRows / seconds * 60);
+
+        try (Connection conn = connect(options); Statement st = conn.createStatement()) {
+            long analyzeStart = System.nanoTime();
+            for (Table table : Table.values()) st.execute("ANALYZE " + table.table);
+            System.out.printf("ANALYZE in %.1f s%n", (System.nanoTime() - analyzeStart) / 1e9);
+        }
+        System.out.println("unit_search is not populated by COPY; rebuild it with "
+                + "POST /api/v1/properties/units/search/rebuild");
+    }
+
+    // Copies rows [from, to) of one table over its own connection
+    private static Void copy(Map<String, String> options, Dataset dataset, Table table, long from, long to,
+                             Span span) throws SQLException, IOException {
+        span.start.accumulateAndGet(System.nanoTime(), Math::min);
+        try (Connection conn = connect(options)) {
+            String sql = "COPY " + table.table + " (" + table.columns + ") FROM STDIN";
+            StringBuilder row = new StringBuilder(256);
+            try (OutputStream out = new PGCopyOutputStream(conn.unwrap(PGConnection.class), sql, BUFFER_BYTES)) {
+                for (long i = from; i < to; i++) {
+                    row.setLength(0);
+                    dataset.writeRow(table, i, row);
+                    out.write(row.toString().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        span.end.accumulateAndGet(System.nanoTime(), Math::max);
+        return null;
+    }
+
+    // Wall-clock time from a table's first stream starting to its last stream finishing
+    private static class Span {
+        final AtomicLong start = new AtomicLong(Long.MAX_VALUE);
+        final AtomicLong end = new AtomicLong();
+
+        double seconds() {
+            return end.get() == 0 ? 0 : (end.get() - start.get()) / 1e9;
+        }
+    }
+
+    private static boolean isDatagenDatabase(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT to_regclass('datagen_runs') IS NOT NULL")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static boolean hasRows(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String table : TRUNCATED) {
+                try (ResultSet rs = st.executeQuery("SELECT EXISTS (SELECT 1 FROM " + table + ")")) {
+                    if (rs.next() && rs.getBoolean(1)) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Marks the database as loaded by this generator; also a record of the options of each run
+    private static void recordRun(Connection conn, Map<String, String> options, Instant end) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS datagen_runs (started_at timestamptz NOT NULL DEFAULT now(), "
+                    + "seed bigint NOT NULL, end_date date NOT NULL, options text NOT NULL)");
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO datagen_runs (seed, end_date, options) VALUES (?, ?, ?)")) {
+            ps.setLong(1, Long.parseLong(options.get("seed")));
+            ps.setObject(2, LocalDate.ofInstant(end, ZoneOffset.UTC));
+            Map<String, String> recorded = new LinkedHashMap<>(options);
+            recorded.remove("password");
+            ps.setString(3, recorded.toString());
+            ps.execute();
+        }
+    }
+
+    private static void truncate(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            // CASCADE also empties tables that reference these (unit_search, commission records, ...)
+            st.execute("TRUNCATE " + String.join(", ", TRUNCATED) + " CASCADE");
+            st.execute("DELETE FROM users WHERE username LIKE 'gen-user-%'");
+        }
+        System.out.println("Truncated property and lead tables and removed generated users");
+    }
+
+    private static Connection connect(Map<String, String> options) throws SQLException {
+        return DriverManager.getConnection(options.get("url"), options.get("user"), options.get("password"));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (int i = 0; i < args.length; i += 2) {
+            String name = args[i].replaceFirst("^-+", "");
+            if (!DEFAULTS.containsKey(name) || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Usage: -name value ...; known options: " + DEFAULTS.keySet()
+                        + ", got: " + Arrays.toString(args));
+            }
+            options.put(name, args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,232 @@
+package com.realestatecrm.datagen;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * The generated dataset as pure functions of (seed, table, row index). A row's id, creation time
+ * and every attribute are derived from its index alone, and a reference is just the id of another
+ * table's row at a derived index, so any range of any table can be produced by any stream in any
+ * order and the result is always the same, referentially consistent dataset.
+ *
+ * Ids are UUIDv7 with the row's created_at as timestamp, like the application's own ids, so rows
+ * sort by creation time in the primary key indexes.
+ */
+public class Dataset {
+
+    public enum Table {
+        USERS("users", "id, username, email, password_hash, first_name, last_name, role, compensation_type, " +
+                "base_salary, commission_rate, created_at, updated_at"),
+        OWNERS("owners", "id, name, contact_person, email, phone, address, tax_number, notes, created_at"),
+        SITES("sites", "id, name, address_line1, address_line2, city, state, country, postal_code, " +
+                "parking_available, description, created_at"),
+        BUILDINGS("buildings", "id, name, floor_count, total_area_sqm, site_id, created_at"),
+        UNITS("building_units", "id, unit_number, type, floor, area_sqm, parking_slots, price, status, " +
+                "sale_count, building_id, owner_id, created_at"),
+        LEADS("leads", "id, first_name, last_name, email, phone, source, status, assigned_to, created_at, updated_at, " +
+                "closed_at");
+
+        public final String table;
+        public final String columns;
+
+        Table(String table, String columns) {
+            this.table = table;
+            this.columns = columns;
+        }
+    }
+
+    // bcrypt (strength 10) of "Password123!", shared by every generated user
+    static final String PASSWORD_HASH = "$2a$10$haPqfaB2W7ybmVQdAUS1IeagFmTZxr27jO7GG4zNCHUHoByNW9XjG";
+
+    private static final String[] FIRST_NAMES = {"Abebe", "Almaz", "Biniam", "Dawit", "Eden", "Fikirte", "Girma",
+            "Hana", "Kebede", "Liya", "Meron", "Nahom", "Rediet", "Selam", "Tigist", "Yonas", "Zerihun", "Meaza"};
+    private static final String[] LAST_NAMES = {"Alemu", "Bekele", "Desta", "Gebre", "Haile", "Kassa", "Lemma",
+            "Mekonnen", "Negash", "Tadesse", "Tesfaye", "Worku", "Yohannes", "Zewdu"};
+    private static final String[] CITIES = {"Addis Ababa", "Adama", "Bahir Dar", "Hawassa", "Mekelle", "Dire Dawa",
+            "Gondar", "Jimma", "Dessie", "Bishoftu"};
+    private static final String[] STREETS = {"Bole Road", "Africa Avenue", "Churchill Avenue", "Haile Gebreselassie Road",
+            "Ras Desta Damtew Street", "Meskel Square", "CMC Road", "Sarbet Road"};
+    private static final String[] UNIT_TYPES = {"APARTMENT", "OFFICE", "SHOP", "MIXED"};
+    private static final String[] SOURCES = {"WEBSITE", "REFERRAL", "SOCIAL_MEDIA", "COLD_CALL", "PARTNER", "OTHER"};
+
+    // Cumulative weights out of 100, matching BuildingUnit.Status and Lead.Status
+    private static final String[] UNIT_STATUSES = {"AVAILABLE", "RESERVED", "LEASED", "SOLD"};
+    private static final int[] UNIT_STATUS_WEIGHTS = {55, 65, 85, 100};
+    private static final String[] LEAD_STATUSES = {"NEW", "CONTACTED", "QUALIFIED", "OPPORTUNITY", "CONTRACT",
+            "CLOSED_WON", "CLOSED_LOST"};
+    private static final int[] LEAD_STATUS_WEIGHTS = {30, 50, 65, 75, 80, 88, 100};
+
+    private final long seed;
+    private final long users;
+    private final long owners;
+    private final long sites;
+    private final int buildingsPerSite;
+    private final int unitsPerBuilding;
+    private final long leads;
+    private final long startMillis;
+    private final long endMillis;
+
+    public Dataset(long seed, long users, long owners, long sites, int buildingsPerSite, int unitsPerBuilding,
+                   long leads, Instant start, Instant end) {
+        this.seed = seed;
+        this.users = users;
+        this.owners = owners;
+        this.sites = sites;
+        this.buildingsPerSite = buildingsPerSite;
+        this.unitsPerBuilding = unitsPerBuilding;
+        this.leads = leads;
+        this.startMillis = start.toEpochMilli();
+        this.endMillis = end.toEpochMilli();
+    }
+
+    public long count(Table table) {
+        return switch (table) {
+            case USERS -> users;
+            case OWNERS -> owners;
+            case SITES -> sites;
+            case BUILDINGS -> sites * buildingsPerSite;
+            case UNITS -> sites * buildingsPerSite * unitsPerBuilding;
+            case LEADS -> leads;
+        };
+    }
+
+    /** Appends row {@code i} of {@code table} to {@code out} in COPY text format. */
+    public void writeRow(Table table, long i, StringBuilder out) {
+        SplittableRandom r = random(table, i, 1);
+        long created = createdAt(table, i);
+        switch (table) {
+            case USERS -> {
+                String role = userRole(i);
+                boolean sales = role.equals("SALES");
+                String first = pick(r, FIRST_NAMES);
+                String last = pick(r, LAST_NAMES);
+                row(out, id(table, i), String.format("gen-user-%07d", i), "gen-user-" + i + "@example.com",
+                        PASSWORD_HASH, first, last, role,
+                        sales ? (r.nextBoolean() ? "COMMISSION" : "SALARY_PLUS_COMMISSION") : "SALARY",
+                        money(sales ? 8_000 + r.nextInt(12_000) : 30_000 + r.nextInt(40_000)),
+                        sales ? String.format("%.4f", 0.02 + r.nextInt(31) / 1000.0) : null,
+                        ts(created), ts(created));
+            }
+            case OWNERS -> {
+                String last = pick(r, LAST_NAMES);
+                boolean company = r.nextInt(3) == 0;
+                row(out, id(table, i), company ? last + " Holdings PLC " + i : pick(r, FIRST_NAMES) + " " + last + " " + i,
+                        pick(r, FIRST_NAMES) + " " + last, "owner-" + i + "@example.com", phone(r),
+                        pick(r, STREETS) + ", " + pick(r, CITIES), String.format("%010d", i),
+                        r.nextInt(4) == 0 ? "Prefers contact by email" : null, ts(created));
+            }
+            case SITES -> {
+                String city = pick(r, CITIES);
+                row(out, id(table, i), city + " Site " + i, (1 + r.nextInt(400)) + " " + pick(r, STREETS),
+                        r.nextInt(5) == 0 ? "Block " + (char) ('A' + r.nextInt(6)) : null, city, city, "Ethiopia",
+                        String.valueOf(1000 + r.nextInt(9000)), String.valueOf(r.nextBoolean()),
+                        "Generated site " + i, ts(created));
+            }
+            case BUILDINGS -> row(out, id(table, i), "Building " + (char) ('A' + i % buildingsPerSite) + "-" + i,
+                    String.valueOf(floorCount(i)), String.valueOf(500 + r.nextInt(30_000)),
+                    id(Table.SITES, i / buildingsPerSite).toString(), ts(created));
+            case UNITS -> {
+                long building = i / unitsPerBuilding;
+                int floor = r.nextInt(floorCount(building) + 1);
+                double area = 30 + r.nextInt(270);
+                String type = pick(r, UNIT_TYPES);
+                int parking = r.nextInt(4);
+                double price = area * (25_000 + r.nextInt(50_000));
+                String status = weighted(r, UNIT_STATUSES, UNIT_STATUS_WEIGHTS);
+                // A sold or leased unit has been through one sale
+                boolean closedSale = status.equals("SOLD") || status.equals("LEASED");
+                row(out, id(table, i), floor + "-" + (i % unitsPerBuilding + 1), type,
+                        String.valueOf(floor), String.valueOf(area), String.valueOf(parking), String.valueOf(price),
+                        status, closedSale ? "1" : "0", id(Table.BUILDINGS, building).toString(),
+                        r.nextInt(10) < 7 ? id(Table.OWNERS, r.nextLong(owners)).toString() : null, ts(created));
+            }
+            case LEADS -> {
+                String status = weighted(r, LEAD_STATUSES, LEAD_STATUS_WEIGHTS);
+                boolean assigned = !status.equals("NEW") || r.nextBoolean();
+                long updated = Math.min(endMillis, created + r.nextLong(30L * 24 * 3600 * 1000));
+                // Closed leads closed somewhere between creation and their last update; drawn from
+                // a stream of its own so the other columns stay as they were
+                boolean closed = status.equals("CLOSED_WON") || status.equals("CLOSED_LOST");
+                String closedAt = closed ? ts(created + random(table, i, 5).nextLong(updated - created + 1)) : null;
+                row(out, id(table, i), pick(r, FIRST_NAMES), pick(r, LAST_NAMES), "lead-" + i + "@example.com",
+                        phone(r), pick(r, SOURCES), status,
+                        assigned && users > 0 ? id(Table.USERS, salesUser(r.nextLong(users))).toString() : null,
+                        ts(created), ts(updated), closedAt);
+            }
+        }
+    }
+
+    // 1 in 100 users is an ADMIN, 1 in 10 a MANAGER, the rest SALES
+    private static String userRole(long i) {
+        return i % 100 == 0 ? "ADMIN" : i % 10 == 0 ? "MANAGER" : "SALES";
+    }
+
+    // Moves a drawn user index to a neighbouring SALES user
+    private long salesUser(long i) {
+        if (!userRole(i).equals("SALES")) i = i + 1 < users ? i + 1 : i - 1;
+        return Math.max(i, 0);
+    }
+
+    private int floorCount(long building) {
+        return 2 + random(Table.BUILDINGS, building, 2).nextInt(30);
+    }
+
+    // Spread evenly over [start, end) in index order, with jitter inside each row's slot
+    long createdAt(Table table, long i) {
+        long slot = Math.max(1, (endMillis - startMillis) / Math.max(1, count(table)));
+        return startMillis + (endMillis - startMillis) * i / Math.max(1, count(table))
+                + random(table, i, 3).nextLong(slot);
+    }
+
+    UUID id(Table table, long i) {
+        SplittableRandom r = random(table, i, 4);
+        long msb = (createdAt(table, i) << 16) | 0x7000L | (r.nextLong() & 0x0FFFL);
+        long lsb = (r.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    private SplittableRandom random(Table table, long i, int stream) {
+        return new SplittableRandom(mix(mix(seed * 31 + table.ordinal() * 7L + stream) + i));
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String pick(SplittableRandom r, String[] values) {
+        return values[r.nextInt(values.length)];
+    }
+
+    private static String weighted(SplittableRandom r, String[] values, int[] cumulative) {
+        int ticket = r.nextInt(100);
+        for (int k = 0; k < values.length; k++) {
+            if (ticket < cumulative[k]) return values[k];
+        }
+        return values[values.length - 1];
+    }
+
+    private static String phone(SplittableRandom r) {
+        return "+2519" + (10_000_000 + r.nextInt(89_999_999));
+    }
+
+    private static String money(int amount) {
+        return amount + ".00";
+    }
+
+    private static String ts(long millis) {
+        return Instant.ofEpochMilli(millis).toString();
+    }
+
+    // Generated values never contain tabs, newlines or backslashes, so no COPY escaping is needed
+    private static void row(StringBuilder out, Object... values) {
+        for (int k = 0; k < values.length; k++) {
+            if (k > 0) out.append('\t');
+            out.append(values[k] == null ? "\\N" : values[k].toString());
+        }
+        out.append('\n');
+    }
+}
@@ -100,6 +100,19 @@ interface User {
   updatedAt: string;
 }
 
+// Background site/building delete, as returned by DELETE and GET /properties/delete-jobs/{jobId}
+interface DeleteJob {
+  jobId: string;
+  targetType: 'SITE' | 'BUILDING';
+  targetId: string;
+  status: 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+  unitsTotal: number;
+  unitsDeleted: number;
+  buildingsTotal: number;
+  buildingsDeleted: number;
+  error?: string;
+}
+
 // Use type assertion for import.meta.env to avoid TypeScript errors
 const API_BASE = (import.meta as any).env?.VITE_API_BASE || 'http://localhost:8080/api/v1';
 
@@ -508,6 +521,22 @@ const createApiMutation = <T>(
   });
 };
 
+// Site and building deletes are accepted (202) and run as a job: poll it so the promise only
+// resolves once the rows are gone, and callers can refetch straight away
+const DELETE_JOB_POLL_MS = 500;
+
+const waitForDeleteJob = async (response: AxiosResponse<DeleteJob>): Promise<AxiosResponse<DeleteJob>> => {
+  let current = response;
+  while (current.data?.jobId && (current.data.status === 'QUEUED' || current.data.status === 'RUNNING')) {
+    await new Promise(resolve => setTimeout(resolve, DELETE_JOB_POLL_MS));
+    current = await api.get<DeleteJob>(`/properties/delete-jobs/${current.data.jobId}`);
+  }
+  if (current.data?.status === 'FAILED') {
+    throw new Error(current.data.error || 'Delete failed');
+  }
+  return current;
+};
+
 // AUTH ENDPOINTS
 export const authAPI = {
   login: (data: { username: string; password: string }): Promise<AxiosResponse> =>
@@ -549,8 +578,12 @@ export const userAPI = {
 
 // LEAD ENDPOINTS
 export const leadAPI = {
-  getAll: (): Promise<AxiosResponse<Lead[]>> =>
-    createApiWithFallback(() => api.get('/leads'), mockLeads),
+  // The backend leaves CLOSED_WON/CLOSED_LOST leads out unless includeClosed is set
+  getAll: (includeClosed = true): Promise<AxiosResponse<Lead[]>> =>
+    createApiWithFallback(
+      () => api.get('/leads', { params: { includeClosed } }),
+      includeClosed ? mockLeads : mockLeads.filter(lead => lead.status !== 'CLOSED_WON' && lead.status !== 'CLOSED_LOST')
+    ),
 
   getById: (id: string): Promise<AxiosResponse<Lead | null>> =>
     createApiWithFallback(() => api.get(`/leads/${id}`), mockLeads.find(lead => lead.id === id) || null),
@@ -606,8 +639,11 @@ export const propertyAPI = {
     }): Promise<AxiosResponse<Site>> =>
       createApiMutation(() => api.put(`/properties/sites/${id}`, data), 'Failed to update site. Please check the data and try again.'),
 
-    delete: (id: string): Promise<AxiosResponse> =>
-      createApiMutation(() => api.delete(`/properties/sites/${id}`), 'Failed to delete site. It may not exist or has dependencies.'),
+    delete: (id: string): Promise<AxiosResponse<DeleteJob>> =>
+      createApiMutation(
+        () => api.delete<DeleteJob>(`/properties/sites/${id}`).then(waitForDeleteJob),
+        'Failed to delete site. It may not exist or has dependencies.'
+      ),
   },
 
   buildings: {
@@ -680,9 +716,10 @@ export const propertyAPI = {
         'Failed to update building. Please check the data and try again.'
       ),
 
-    delete: (id: string): Promise<AxiosResponse> =>
+    delete: (id: string): Promise<AxiosResponse<DeleteJob>> =>
       createApiMutation(
-        () => api.delete(`/properties/buildings/${id}`)
+        () => api.delete<DeleteJob>(`/properties/buildings/${id}`)
+          .then(waitForDeleteJob)
           .catch(error => {
             console.error(`Delete building ${id} API error:`, error.response?.data || error.message);
             throw error;
@@ -772,6 +809,79 @@ export const propertyAPI = {
   },
 };
 
+// LIVE UNIT CHANGES
+interface UnitChange {
+  unitId: string;
+  unitNumber: string;
+  buildingId: string;
+  siteId?: string;
+  status: BuildingUnit['status'];
+  price: number;
+  ownerId?: string;
+  ownerName?: string;
+  changedAt: string;
+}
+
+// Reads GET /properties/units/stream with fetch: EventSource can't send the Authorization header.
+// The server ends streams on timeout and drops clients that fall behind, so this reconnects with
+// backoff and calls onReconnect, letting the caller refetch what it missed. Returns an unsubscribe.
+export const subscribeToUnitChanges = (
+  onChange: (change: UnitChange) => void,
+  options: { buildingId?: string; siteId?: string; onReconnect?: () => void } = {}
+): (() => void) => {
+  const controller = new AbortController();
+  const params = new URLSearchParams();
+  if (options.buildingId) params.set('buildingId', options.buildingId);
+  if (options.siteId) params.set('siteId', options.siteId);
+  const url = `${API_BASE}/properties/units/stream${params.toString() ? `?${params}` : ''}`;
+
+  const read = async () => {
+    let failures = 0;
+    let connected = false;
+    while (!controller.signal.aborted) {
+      try {
+        const token = localStorage.getItem('accessToken') || localStorage.getItem('token');
+        const response = await fetch(url, {
+          headers: { Accept: 'text/event-stream', ...(token ? { Authorization: `Bearer ${token}` } : {}) },
+          signal: controller.signal,
+        });
+        if (!response.ok || !response.body) {
+          throw new Error(`Unit stream responded ${response.status}`);
+        }
+        if (connected) options.onReconnect?.();
+        connected = true;
+        failures = 0;
+
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += value;
+          // Frames end with a blank line; heartbeats are comment lines without data
+          let end: number;
+          while ((end = buffer.indexOf('\n\n')) >= 0) {
+            const data = buffer.slice(0, end).split('\n')
+              .filter(line => line.startsWith('data: '))
+              .map(line => line.slice(6))
+              .join('\n');
+            buffer = buffer.slice(end + 2);
+            if (data) onChange(JSON.parse(data));
+          }
+        }
+      } catch (error) {
+        if (controller.signal.aborted) return;
+        failures++;
+        console.warn('Unit stream error:', error);
+      }
+      const delay = Math.min(1000 * 2 ** failures, 30000);
+      await new Promise(resolve => setTimeout(resolve, delay));
+    }
+  };
+  read();
+  return () => controller.abort();
+};
+
 // HEALTH CHECK
 export const healthAPI = {
   check: (): Promise<AxiosResponse> =>
@@ -861,6 +971,7 @@ export type {
   Owner,
   Lead,
   User,
+  UnitChange,
   BackendError
 };
 
@@ -1,4 +1,4 @@
-import React, { useState, useMemo } from 'react';
+import React, { useState, useMemo, useEffect } from 'react';
 import {
   Table,
   TableBody,
@@ -17,7 +17,7 @@ import {
 } from '@mui/material';
 import { Edit, Delete } from '@mui/icons-material';
 import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
-import { propertyAPI } from '../../api/apiClient';
+import { propertyAPI, subscribeToUnitChanges } from '../../api/apiClient';
 import { BuildingUnit, Building, Owner } from '../../types/Property';
 import ConfirmDialog from '../ConfirmDialog';
 import UnitFormDialog from './UnitFormDialog';
@@ -43,6 +43,15 @@ export default function UnitTable() {
     }).then(res => res.data),
   });
 
+  // Live status/price/owner changes patch the cached lists; after a reconnect they are refetched
+  useEffect(() => subscribeToUnitChanges(
+    change => queryClient.setQueriesData({ queryKey: ['units'] }, (old: BuildingUnit[] | undefined) =>
+      old?.map(unit => unit.id === change.unitId
+        ? { ...unit, status: change.status, price: change.price, ownerId: change.ownerId, ownerName: change.ownerName, owner: undefined }
+        : unit)),
+    { onReconnect: () => queryClient.invalidateQueries({ queryKey: ['units'] }) }
+  ), [queryClient]);
+
   const { 
     data: buildings, 
     isLoading: buildingsLoading 
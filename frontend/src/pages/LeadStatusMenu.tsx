@@ -66,7 +66,7 @@ export default function LeadStatusMenu({ id, status, size = 'small', variant = '
       console.log('🎉 Mutation success - updating cache for status:', newStatus);
       
       // Optimistically update the cache
-      queryClient.setQueryData(['leads'], (oldLeads: any[] | undefined) => {
+      queryClient.setQueriesData({ queryKey: ['leads'] }, (oldLeads: any[] | undefined) => {
         if (!oldLeads) return oldLeads;
         
         const updatedLeads = oldLeads.map(lead => 
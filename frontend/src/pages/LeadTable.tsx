@@ -23,6 +23,8 @@ import {
   DialogActions,
   Grid,
   CircularProgress,
+  FormControlLabel,
+  Switch,
 } from '@mui/material';
 import {
   Add,
@@ -63,6 +65,8 @@ export default function LeadTable() {
     status: null,
     source: null,
   });
+  // Closed leads are only fetched when shown
+  const [showClosed, setShowClosed] = useState(true);
   const [deleteDialogOpen, setDeleteDialogOpen] = useState(false);
   const [leadToDelete, setLeadToDelete] = useState<{ id: string; name: string } | null>(null);
   const [snackbar, setSnackbar] = useState({ 
@@ -78,9 +82,9 @@ export default function LeadTable() {
     error,
     refetch 
   } = useQuery<Lead[]>({
-    queryKey: ['leads'],
+    queryKey: ['leads', { includeClosed: showClosed }],
     queryFn: async () => {
-      const res = await leadAPI.getAll();
+      const res = await leadAPI.getAll(showClosed);
       return res.data as Lead[];
     },
     retry: 3,
@@ -93,7 +97,7 @@ export default function LeadTable() {
     },
     onSuccess: (_, deletedId) => {
       // Optimistically update the cache
-      queryClient.setQueryData(['leads'], (oldLeads: Lead[] | undefined) => {
+      queryClient.setQueriesData({ queryKey: ['leads'] }, (oldLeads: Lead[] | undefined) => {
         if (!oldLeads) return oldLeads;
         return oldLeads.filter(lead => lead.id !== deletedId);
       });
@@ -174,6 +178,9 @@ export default function LeadTable() {
   };
 
   const handleStatusFilter = (status: string | null) => {
+    if (status === 'CLOSED_WON' || status === 'CLOSED_LOST') {
+      setShowClosed(true);
+    }
     setActiveFilters(prev => ({
       ...prev,
       status: status === 'ALL' ? null : status
@@ -480,7 +487,8 @@ export default function LeadTable() {
   const contactedLeads = filteredLeads?.filter(lead => lead.status === 'CONTACTED').length || 0;
   const qualifiedLeads = filteredLeads?.filter(lead => lead.status === 'QUALIFIED').length || 0;
   const convertedLeads = filteredLeads?.filter(lead => lead.status === 'CLOSED_WON').length || 0;
-  const conversionRate = totalLeads > 0 ? ((convertedLeads / totalLeads) * 100).toFixed(1) : '0';
+  // Only meaningful when closed leads are loaded
+  const conversionRate = !showClosed ? '-' : totalLeads > 0 ? `${((convertedLeads / totalLeads) * 100).toFixed(1)}%` : '0%';
 
   // Count active filters for badge
   const activeFilterCount = Object.values(activeFilters).filter(Boolean).length;
@@ -676,6 +684,19 @@ export default function LeadTable() {
                 </Box>
               )}
               
+              <Tooltip title={showClosed ? 'Hide won and lost leads' : 'Show won and lost leads'}>
+                <FormControlLabel
+                  control={
+                    <Switch
+                      checked={showClosed}
+                      onChange={(e) => setShowClosed(e.target.checked)}
+                      color="default"
+                    />
+                  }
+                  label="Closed"
+                  sx={{ color: 'white', mr: 0 }}
+                />
+              </Tooltip>
               <Tooltip title="Filter Leads">
                 <Badge badgeContent={activeFilterCount} color="primary">
                   <IconButton
@@ -748,7 +769,7 @@ export default function LeadTable() {
                 value={totalLeads}
                 icon={<Person sx={{ fontSize: 32 }} />}
                 color="primary"
-                subtitle="All leads"
+                subtitle={showClosed ? 'All leads' : 'Open leads'}
               />
             </Grid>
             <Grid item xs={12} sm={6} md={3}>
@@ -772,10 +793,10 @@ export default function LeadTable() {
             <Grid item xs={12} sm={6} md={3}>
               <StatCard
                 title="Conversion Rate"
-                value={`${conversionRate}%`}
+                value={conversionRate}
                 icon={<TrendingUp sx={{ fontSize: 32 }} />}
                 color="warning"
-                subtitle="Success rate"
+                subtitle={showClosed ? 'Success rate' : 'Show closed leads to compute'}
               />
             </Grid>
           </Grid>
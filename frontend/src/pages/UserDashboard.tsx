@@ -107,8 +107,8 @@ export default function UserDashboard() {
     error: leadsError,
     refetch: refetchLeads 
   } = useQuery<Lead[]>({
-    queryKey: ['leads'],
-    queryFn: () => leadAPI.getAll().then(res => res.data),
+    queryKey: ['leads', { includeClosed: true }],
+    queryFn: () => leadAPI.getAll(true).then(res => res.data),
     retry: 3,
   });
 
@@ -0,0 +1,60 @@
+package com.realestatecrm.loadtest;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * One simulated sales agent: an account, its own API session and random stream, and the scenario
+ * it keeps repeating until the stage ends. Think time is uniform in [0.5, 1.5] x the mean.
+ */
+public class Agent implements Runnable {
+
+    final String username;
+    final String password;
+    final UUID userId;
+    final ApiClient api;
+    final Random random;
+    private final long thinkMillis;
+    private final Scenario scenario;
+    private volatile boolean stopped;
+
+    public Agent(String username, String password, UUID userId, ApiClient api, long seed,
+                 long thinkMillis, String scenarioName) {
+        this.username = username;
+        this.password = password;
+        this.userId = userId;
+        this.api = api;
+        this.random = new Random(seed);
+        this.thinkMillis = thinkMillis;
+        this.scenario = Scenario.create(scenarioName);
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!stopped && !api.loggedIn()) {
+                api.login(username, password);
+                think();
+            }
+            while (!stopped) {
+                scenario.iterate(this);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void think() throws InterruptedException {
+        if (stopped) throw new InterruptedException();
+        Thread.sleep(thinkMillis / 2 + (long) (random.nextDouble() * thinkMillis));
+    }
+
+    <T> T pick(List<T> items) {
+        return items.get(random.nextInt(items.size()));
+    }
+}
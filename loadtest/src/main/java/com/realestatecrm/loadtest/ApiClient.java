@@ -0,0 +1,106 @@
+package com.realestatecrm.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * One agent's view of the API: a bearer token plus timed JSON calls. Each call is recorded under
+ * its endpoint template (e.g. {@code GET /api/v1/leads/{id}}) rather than the concrete URL so
+ * results group per endpoint. Transport failures are recorded with status -1.
+ */
+public class ApiClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Recorder recorder;
+    private String token;
+
+    public ApiClient(HttpClient http, String baseUrl, Recorder recorder) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    public record Response(int status, JsonNode body) {
+        public boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    public Response login(String username, String password) {
+        Response response = call("POST", "/api/v1/auth/login", "/api/v1/auth/login",
+                MAPPER.createObjectNode().put("username", username).put("password", password));
+        token = response.ok() ? response.body().path("accessToken").asText(null) : null;
+        return response;
+    }
+
+    public boolean loggedIn() {
+        return token != null;
+    }
+
+    public Response get(String endpoint, String path) {
+        return call("GET", endpoint, path, null);
+    }
+
+    public Response post(String endpoint, String path, Object body) {
+        return call("POST", endpoint, path, body);
+    }
+
+    public Response put(String endpoint, String path, Object body) {
+        return call("PUT", endpoint, path, body);
+    }
+
+    public Response patch(String endpoint, String path, Object body) {
+        return call("PATCH", endpoint, path, body);
+    }
+
+    private Response call(String method, String endpoint, String path, Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json");
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        try {
+            if (body != null) {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialise request body", e);
+        }
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            recorder.record(method + " " + endpoint, start, System.nanoTime(), response.statusCode());
+            return new Response(response.statusCode(), parse(response.body()));
+        } catch (IOException e) {
+            recorder.record(method + " " + endpoint, start, System.nanoTime(), -1);
+            return new Response(-1, MissingNode.getInstance());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(-1, MissingNode.getInstance());
+        }
+    }
+
+    private static JsonNode parse(byte[] body) {
+        if (body.length == 0) return MissingNode.getInstance();
+        try {
+            return MAPPER.readTree(body);
+        } catch (IOException e) {
+            return MissingNode.getInstance();   // plain-text error bodies
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.realestatecrm.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Closed-model load test against a running backend. Each stage runs a fixed number of simulated
+ * agents (one virtual thread each) that repeat their scenario with think time in between; agents
+ * are started over the ramp period and only the following {@code -duration} seconds are measured.
+ * Stages run one after another so a single run shows how latency grows with the number of agents.
+ *
+ * Agent accounts ({@code lt-agent-001} ...) are created through the users API on first use and
+ * reused afterwards. Which agent runs which scenario is drawn from {@code -seed}, so two runs with
+ * the same options send the same mix of requests.
+ */
+public class LoadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        String baseUrl = options.get("url");
+        List<Integer> stages = options.getIntList("agents");
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        Map<String, UUID> accounts = ensureAgents(http, options, stages.stream().max(Integer::compare).orElse(0));
+
+        ObjectNode report = MAPPER.createObjectNode();
+        report.put("startedAt", Instant.now().toString());
+        report.set("options", MAPPER.valueToTree(options.asMap()));
+        ObjectNode environment = report.putObject("environment");
+        environment.put("java", System.getProperty("java.version"));
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version"));
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+
+        var stageResults = report.putArray("stages");
+        for (int agents : stages) {
+            stageResults.add(runStage(http, options, accounts, agents));
+        }
+
+        File out = new File(options.get("out"));
+        if (out.getParentFile() != null) out.getParentFile().mkdirs();
+        MAPPER.writeValue(out, report);
+        System.out.println("Results written to " + out.getPath());
+    }
+
+    // Creates any missing lt-agent-NNN accounts and returns username -> user id
+    private static Map<String, UUID> ensureAgents(HttpClient http, Options options, int count) {
+        ApiClient admin = new ApiClient(http, options.get("url"), new Recorder());
+        if (!admin.login(options.get("admin-user"), options.get("admin-password")).ok()) {
+            throw new IllegalStateException("Admin login failed for " + options.get("admin-user"));
+        }
+
+        Map<String, UUID> accounts = new LinkedHashMap<>();
+        for (int i = 1; i <= count; i++) {
+            String username = String.format("lt-agent-%03d", i);
+            ObjectNode user = MAPPER.createObjectNode()
+                    .put("username", username)
+                    .put("email", username + "@loadtest.example")
+                    .put("passwordHash", options.get("agent-password"))
+                    .put("firstName", "Load")
+                    .put("lastName", "Agent " + i)
+                    .put("role", "SALES")
+                    .put("compensationType", "COMMISSION");
+            ApiClient.Response response = admin.post("/api/v1/users", "/api/v1/users", user);
+            accounts.put(username, response.ok() ? UUID.fromString(response.body().path("id").asText()) : null);
+        }
+
+        if (accounts.containsValue(null)) {
+            Map<String, UUID> existing = new HashMap<>();
+            for (JsonNode user : admin.get("/api/v1/users", "/api/v1/users").body()) {
+                existing.put(user.path("username").asText(), UUID.fromString(user.path("id").asText()));
+            }
+            accounts.replaceAll((username, id) -> id != null ? id : existing.get(username));
+        }
+        accounts.forEach((username, id) -> {
+            if (id == null) throw new IllegalStateException("Could not create or find agent account " + username);
+        });
+        return accounts;
+    }
+
+    private static ObjectNode runStage(HttpClient http, Options options, Map<String, UUID> accounts, int count)
+            throws InterruptedException {
+        Recorder recorder = new Recorder();
+        Random random = new Random(options.getInt("seed"));
+        Map<String, Integer> weights = options.getWeights("mix");
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        long rampMillis = options.getInt("ramp") * 1000L;
+
+        List<Agent> agents = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        Map<String, Integer> scenarios = new LinkedHashMap<>();
+        List<String> usernames = new ArrayList<>(accounts.keySet());
+        for (int i = 0; i < count; i++) {
+            String scenario = draw(weights, random.nextInt(totalWeight));
+            scenarios.merge(scenario, 1, Integer::sum);
+            String username = usernames.get(i);
+            Agent agent = new Agent(username, options.get("agent-password"), accounts.get(username),
+                    new ApiClient(http, options.get("url"), recorder), random.nextLong(),
+                    options.getInt("think-ms"), scenario);
+            agents.add(agent);
+            threads.add(Thread.ofVirtual().name(username).start(agent));
+            Thread.sleep(rampMillis / count);
+        }
+
+        System.out.printf("%nStage: %d agents %s, measuring %d s%n", count, scenarios, options.getInt("duration"));
+        recorder.openWindow();
+        Thread.sleep(options.getInt("duration") * 1000L);
+        recorder.closeWindow();
+
+        agents.forEach(Agent::stop);
+        threads.forEach(Thread::interrupt);
+        for (Thread thread : threads) thread.join(Duration.ofSeconds(35));
+
+        List<Recorder.EndpointResult> endpoints = recorder.results();
+        Recorder.EndpointResult total = recorder.total();
+        print(endpoints, total);
+
+        ObjectNode stage = MAPPER.createObjectNode();
+        stage.put("agents", count);
+        stage.set("scenarios", MAPPER.valueToTree(scenarios));
+        stage.put("measuredSeconds", Math.round(recorder.windowSeconds() * 10) / 10.0);
+        stage.set("total", MAPPER.valueToTree(total));
+        stage.set("endpoints", MAPPER.valueToTree(endpoints));
+        return stage;
+    }
+
+    private static String draw(Map<String, Integer> weights, int ticket) {
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) return entry.getKey();
+        }
+        throw new IllegalStateException("Weights exhausted");
+    }
+
+    private static void print(List<Recorder.EndpointResult> endpoints, Recorder.EndpointResult total) {
+        String format = "%-52s %7s %6s %8s %8s %8s %8s %8s %9s%n";
+        System.out.printf(format, "endpoint", "reqs", "errors", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms");
+        List<Recorder.EndpointResult> rows = new ArrayList<>(endpoints);
+        rows.add(total);
+        for (Recorder.EndpointResult r : rows) {
+            System.out.printf(format, r.endpoint, r.requests, r.errors, r.throughputPerSec,
+                    r.p50Ms, r.p90Ms, r.p95Ms, r.p99Ms, r.maxMs);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.realestatecrm.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options, given as {@code -name value} pairs. Every option has a default so a bare
+ * run works against a local backend started with the seeded admin account.
+ */
+public class Options {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+    static {
+        DEFAULTS.put("url", "http://localhost:8080");
+        DEFAULTS.put("admin-user", "nurye");
+        DEFAULTS.put("admin-password", "Nurye123");
+        DEFAULTS.put("agent-password", "LoadTest123!");
+        DEFAULTS.put("agents", "10,25,50");   // one stage per value, run in order
+        DEFAULTS.put("duration", "60");       // measured seconds per stage
+        DEFAULTS.put("ramp", "10");           // seconds to start all agents; not measured
+        DEFAULTS.put("think-ms", "1000");     // mean pause between an agent's requests
+        DEFAULTS.put("mix", "browse=70,leads=25,login=5");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("out", "target/loadtest-result.json");
+    }
+
+    private final Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+
+    public static Options parse(String[] args) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("-") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected -name value, got: " + arg);
+            }
+            String name = arg.replaceFirst("^-+", "");
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option -" + name + "; known: " + DEFAULTS.keySet());
+            }
+            options.values.put(name, args[++i]);
+        }
+        return options;
+    }
+
+    public String get(String name) {
+        return values.get(name);
+    }
+
+    public int getInt(String name) {
+        return Integer.parseInt(values.get(name));
+    }
+
+    public List<Integer> getIntList(String name) {
+        return Arrays.stream(values.get(name).split(",")).map(String::trim).map(Integer::parseInt).toList();
+    }
+
+    // "browse=70,leads=25" -> {browse=70, leads=25}
+    public Map<String, Integer> getWeights(String name) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : values.get(name).split(",")) {
+            String[] kv = part.trim().split("=");
+            weights.put(kv[0], Integer.parseInt(kv[1]));
+        }
+        return weights;
+    }
+
+    public Map<String, String> asMap() {
+        Map<String, String> copy = new LinkedHashMap<>(values);
+        copy.remove("admin-password");
+        copy.remove("agent-password");
+        return copy;
+    }
+}
@@ -0,0 +1,124 @@
+package com.realestatecrm.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects every request's latency per endpoint for one stage. Only requests that start inside the
+ * measurement window are kept, so ramp-up and the stop at the end do not skew the numbers.
+ * Percentiles are exact (all samples are kept and sorted), which is fine for runs of minutes.
+ */
+public class Recorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile long windowStartNanos = Long.MAX_VALUE;
+    private volatile long windowEndNanos = Long.MAX_VALUE;
+
+    public void openWindow() {
+        windowStartNanos = System.nanoTime();
+    }
+
+    public void closeWindow() {
+        windowEndNanos = System.nanoTime();
+    }
+
+    public boolean isOpen() {
+        long now = System.nanoTime();
+        return now >= windowStartNanos && now < windowEndNanos;
+    }
+
+    public void record(String endpoint, long startNanos, long endNanos, int status) {
+        if (startNanos < windowStartNanos || startNanos >= windowEndNanos) return;
+        endpoints.computeIfAbsent(endpoint, k -> new Endpoint()).add((endNanos - startNanos) / 1_000, status);
+    }
+
+    public double windowSeconds() {
+        return (windowEndNanos - windowStartNanos) / 1e9;
+    }
+
+    public List<EndpointResult> results() {
+        double seconds = windowSeconds();
+        List<EndpointResult> results = new ArrayList<>();
+        new TreeMap<>(endpoints).forEach((name, endpoint) -> results.add(endpoint.result(name, seconds)));
+        return results;
+    }
+
+    public EndpointResult total() {
+        Endpoint all = new Endpoint();
+        endpoints.values().forEach(all::addAll);
+        return all.result("ALL", windowSeconds());
+    }
+
+    private static class Endpoint {
+        private long[] micros = new long[1024];
+        private int count;
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+        synchronized void add(long latencyMicros, int status) {
+            append(latencyMicros);
+            statuses.merge(status, 1, Integer::sum);
+        }
+
+        synchronized void addAll(Endpoint other) {
+            synchronized (other) {
+                for (int i = 0; i < other.count; i++) append(other.micros[i]);
+                other.statuses.forEach((status, n) -> statuses.merge(status, n, Integer::sum));
+            }
+        }
+
+        private void append(long latencyMicros) {
+            if (count == micros.length) micros = Arrays.copyOf(micros, count * 2);
+            micros[count++] = latencyMicros;
+        }
+
+        synchronized EndpointResult result(String name, double seconds) {
+            long[] sorted = Arrays.copyOf(micros, count);
+            Arrays.sort(sorted);
+            EndpointResult r = new EndpointResult();
+            r.endpoint = name;
+            r.requests = count;
+            r.errors = statuses.entrySet().stream()
+                    .filter(e -> e.getKey() < 200 || e.getKey() >= 400)
+                    .mapToInt(Map.Entry::getValue).sum();
+            r.statuses = new LinkedHashMap<>();
+            statuses.forEach((status, n) -> r.statuses.put(status == -1 ? "IO_ERROR" : String.valueOf(status), n));
+            r.throughputPerSec = round(count / seconds);
+            r.meanMs = count == 0 ? 0 : round(Arrays.stream(sorted).average().orElse(0) / 1000.0);
+            r.p50Ms = percentile(sorted, 0.50);
+            r.p90Ms = percentile(sorted, 0.90);
+            r.p95Ms = percentile(sorted, 0.95);
+            r.p99Ms = percentile(sorted, 0.99);
+            r.maxMs = count == 0 ? 0 : round(sorted[count - 1] / 1000.0);
+            return r;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return round(sorted[Math.max(0, index)] / 1000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100.0) / 100.0;
+        }
+    }
+
+    public static class EndpointResult {
+        public String endpoint;
+        public long requests;
+        public long errors;
+        public Map<String, Integer> statuses;
+        public double throughputPerSec;
+        public double meanMs;
+        public double p50Ms;
+        public double p90Ms;
+        public double p95Ms;
+        public double p99Ms;
+        public double maxMs;
+    }
+}
@@ -0,0 +1,129 @@
+package com.realestatecrm.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What an agent does, modelled on how the frontend is used. One {@link #iterate} is one visit:
+ * a few requests with think time between them. Each agent gets its own instance, so a scenario
+ * can remember what it has already loaded the way the browser does.
+ */
+public interface Scenario {
+
+    void iterate(Agent agent) throws InterruptedException;
+
+    static Scenario create(String name) {
+        return switch (name) {
+            case "browse" -> new Browse();
+            case "leads" -> new LeadChurn();
+            case "login" -> new Login();
+            default -> throw new IllegalArgumentException("Unknown scenario: " + name);
+        };
+    }
+
+    private static List<String> ids(JsonNode array) {
+        List<String> ids = new ArrayList<>();
+        for (JsonNode node : array) {
+            String id = node.path("id").asText(null);
+            if (id != null) ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * Property explorer: site list (re-fetched now and then, cached otherwise), a site's buildings,
+     * a building's units, one unit's detail, and sometimes a search of available units.
+     */
+    class Browse implements Scenario {
+        private static final String[] UNIT_TYPES = {"APARTMENT", "OFFICE", "SHOP", "MIXED"};
+
+        private List<String> sites = List.of();
+
+        @Override
+        public void iterate(Agent agent) throws InterruptedException {
+            ApiClient api = agent.api;
+            if (sites.isEmpty() || agent.random.nextInt(5) == 0) {
+                ApiClient.Response response = api.get("/api/v1/properties/sites", "/api/v1/properties/sites");
+                if (response.ok()) sites = ids(response.body());
+                agent.think();
+            }
+            if (sites.isEmpty()) return;
+
+            String siteId = agent.pick(sites);
+            List<String> buildings = ids(api.get("/api/v1/properties/sites/{siteId}/buildings",
+                    "/api/v1/properties/sites/" + siteId + "/buildings").body());
+            agent.think();
+            if (buildings.isEmpty()) return;
+
+            String buildingId = agent.pick(buildings);
+            List<String> units = ids(api.get("/api/v1/properties/units?buildingId={id}",
+                    "/api/v1/properties/units?buildingId=" + buildingId).body());
+            agent.think();
+            if (units.isEmpty()) return;
+
+            api.get("/api/v1/properties/units/{id}", "/api/v1/properties/units/" + agent.pick(units));
+            agent.think();
+
+            if (agent.random.nextInt(3) == 0) {
+                api.get("/api/v1/properties/units/search?status=&type=",
+                        "/api/v1/properties/units/search?status=AVAILABLE&type="
+                                + UNIT_TYPES[agent.random.nextInt(UNIT_TYPES.length)] + "&limit=20");
+                agent.think();
+            }
+        }
+    }
+
+    /**
+     * A new lead worked through its first stages: create, assign to self, two status moves, then
+     * the agent looks it up again by name.
+     */
+    class LeadChurn implements Scenario {
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        private int created;
+
+        @Override
+        public void iterate(Agent agent) throws InterruptedException {
+            ApiClient api = agent.api;
+            String lastName = "Load-" + agent.username + "-" + (++created);
+            ObjectNode lead = MAPPER.createObjectNode()
+                    .put("firstName", "Test")
+                    .put("lastName", lastName)
+                    .put("email", lastName.toLowerCase() + "@loadtest.example")
+                    .put("phone", "+2519" + (10_000_000 + agent.random.nextInt(89_999_999)))
+                    .put("source", "LOADTEST");
+            ApiClient.Response response = api.post("/api/v1/leads", "/api/v1/leads", lead);
+            agent.think();
+            String leadId = response.body().path("id").asText(null);
+            if (leadId == null) return;
+
+            api.put("/api/v1/leads/{id}/assign", "/api/v1/leads/" + leadId + "/assign",
+                    MAPPER.createObjectNode().put("assignedTo", agent.userId.toString()));
+            agent.think();
+
+            for (String status : new String[] {"CONTACTED", "QUALIFIED"}) {
+                api.patch("/api/v1/leads/{id}/status", "/api/v1/leads/" + leadId + "/status",
+                        MAPPER.createObjectNode().put("status", status));
+                agent.think();
+            }
+
+            api.get("/api/v1/leads/search?q=", "/api/v1/leads/search?limit=20&q=" + lastName);
+            agent.think();
+        }
+    }
+
+    /**
+     * Session start: a fresh login (bcrypt check and token issue) followed by a pause.
+     */
+    class Login implements Scenario {
+        @Override
+        public void iterate(Agent agent) throws InterruptedException {
+            agent.api.login(agent.username, agent.password);
+            agent.think();
+        }
+    }
+}